@@ -0,0 +1,102 @@
+package benchmark;
+
+import model.Client;
+import model.ContBancar;
+import service.FileManager;
+import service.FisierConturiBinar;
+import service.InstantaneuCont;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Random;
+
+/**
+ * Masoara timpul de incarcare a clientilor si conturilor pentru volume mari de date.
+ * <p>
+ * Genereaza fisiere sintetice intr-un director temporar si raporteaza separat citirea
+ * clientilor, incarcarea conturilor din text (cu rezolvarea proprietarilor) si incarcarea
+ * conturilor din fisierul binar.
+ * </p>
+ * <p>
+ * Utilizare: {@code java -Xmx4g benchmark.BenchmarkIncarcare [nrClienti] [nrConturi]}
+ * (implicit 1.000.000 clienti si 3.000.000 conturi).
+ * </p>
+ */
+public class BenchmarkIncarcare {
+
+    public static void main(String[] args) throws IOException {
+        int nrClienti = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int nrConturi = args.length > 1 ? Integer.parseInt(args[1]) : 3_000_000;
+
+        Path director = Files.createTempDirectory("benchmark-banca");
+        File fisierClienti = director.resolve("clienti.txt").toFile();
+        File fisierConturi = director.resolve("conturi.txt").toFile();
+        Path fisierBinar = director.resolve("conturi.dat");
+
+        try {
+            genereaza(fisierClienti, fisierConturi, nrClienti, nrConturi);
+            System.out.printf("Date generate: %,d clienti, %,d conturi%n", nrClienti, nrConturi);
+
+            long start = System.nanoTime();
+            ArrayList<Client> clienti = FileManager.incarcaClienti(fisierClienti.getPath());
+            raporteaza("Incarcare clienti", start, clienti.size());
+
+            start = System.nanoTime();
+            HashMap<Integer, ContBancar> conturi = FileManager.incarcaConturi(clienti, fisierConturi.getPath());
+            raporteaza("Incarcare conturi (text)", start, conturi.size());
+
+            try (FisierConturiBinar binar = FisierConturiBinar.deschide(fisierBinar)) {
+                for (ContBancar c : conturi.values()) {
+                    binar.scrie(InstantaneuCont.din(c));
+                }
+            }
+            conturi = null;
+
+            start = System.nanoTime();
+            try (FisierConturiBinar binar = FisierConturiBinar.deschide(fisierBinar)) {
+                HashMap<Integer, ContBancar> dinBinar = FileManager.incarcaConturi(clienti, binar);
+                raporteaza("Incarcare conturi (binar)", start, dinBinar.size());
+            }
+        } finally {
+            Files.deleteIfExists(fisierClienti.toPath());
+            Files.deleteIfExists(fisierConturi.toPath());
+            Files.deleteIfExists(fisierBinar);
+            Files.deleteIfExists(director);
+        }
+    }
+
+    private static void genereaza(File clienti, File conturi, int nrClienti, int nrConturi) throws IOException {
+        Random random = new Random(42);
+        String[] valute = {"RON", "EUR", "USD", "GBP"};
+
+        try (PrintWriter pw = new PrintWriter(new BufferedWriter(new FileWriter(clienti)))) {
+            for (int i = 1; i <= nrClienti; i++) {
+                pw.println(i + ";client" + i + ";client" + i + "@banca.ro;parola" + i);
+            }
+        }
+
+        try (PrintWriter pw = new PrintWriter(new BufferedWriter(new FileWriter(conturi)))) {
+            for (int i = 0; i < nrConturi; i++) {
+                int idClient = 1 + random.nextInt(nrClienti);
+                String valuta = valute[random.nextInt(valute.length)];
+                switch (i % 3) {
+                    case 0 -> pw.println((1000 + i) + ";" + random.nextInt(100_000) + ".0;" + idClient + ";" +
+                            valuta + ";CURENT;2025-01-01T10:00:00;;0.0");
+                    case 1 -> pw.println((1000 + i) + ";" + random.nextInt(100_000) + ".0;" + idClient + ";" +
+                            valuta + ";ECONOMII;2025-01-01T10:00:00;ECONOMII;0.0");
+                    default -> pw.println((1000 + i) + ";" + random.nextInt(5_000) + ".0;" + idClient + ";" +
+                            valuta + ";CREDIT;2025-01-01T10:00:00;;0.0");
+                }
+            }
+        }
+    }
+
+    private static void raporteaza(String etapa, long startNanos, int elemente) {
+        double ms = (System.nanoTime() - startNanos) / 1_000_000.0;
+        System.out.printf("%-28s %,12d elemente  %,10.1f ms  (%,.0f elemente/s)%n",
+                etapa, elemente, ms, elemente / (ms / 1000.0));
+    }
+}
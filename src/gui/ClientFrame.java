@@ -103,9 +103,9 @@ public class ClientFrame extends JFrame {
                 }
 
 
-                String valutaCurenta = cont.getValuta();
-                String[] valuteDisponibile = {"RON", "EUR", "USD", "GBP"};
-                String valutaNoua = (String) JOptionPane.showInputDialog(
+                Valuta valutaCurenta = cont.getValuta();
+                Valuta[] valuteDisponibile = Valuta.values();
+                Valuta valutaNoua = (Valuta) JOptionPane.showInputDialog(
                         this,
                         "Alege valuta noua pentru contul " + contId + ":",
                         "Selectie valuta",
@@ -115,13 +115,13 @@ public class ClientFrame extends JFrame {
                         valutaCurenta
                 );
 
-                if (valutaNoua == null || valutaNoua.equals(valutaCurenta)) {
+                if (valutaNoua == null || valutaNoua == valutaCurenta) {
                     return;
                 }
 
                 try {
-                    double soldCurent = cont.getSold();
-                    double soldConvertit = CursValutarService.convertCuMatrice(soldCurent, valutaCurenta, valutaNoua);
+                    long soldCurent = cont.getSold();
+                    long soldConvertit = CursValutarService.convertBani(soldCurent, valutaCurenta, valutaNoua);
 
 
                     String mesaj = String.format("""
@@ -143,8 +143,8 @@ public class ClientFrame extends JFrame {
                 Dorești să continui?
                 """,
                             contId, valutaCurenta, valutaNoua,
-                            soldCurent, valutaCurenta,
-                            soldConvertit, valutaNoua
+                            Bani.laDouble(soldCurent), valutaCurenta,
+                            Bani.laDouble(soldConvertit), valutaNoua
 
                     );
 
@@ -161,8 +161,7 @@ public class ClientFrame extends JFrame {
                     }
 
 
-                    cont.schimbaValuta(valutaNoua);
-                    banca.salveazaDate();
+                    banca.schimbaValuta(client, contId, valutaNoua);
 
 
                     JOptionPane.showMessageDialog(
@@ -173,7 +172,7 @@ public class ClientFrame extends JFrame {
                     Contul %d este acum în %s
                     Sold nou: %.2f %s
                     """,
-                                    contId, valutaNoua, soldConvertit, valutaNoua),
+                                    contId, valutaNoua, Bani.laDouble(soldConvertit), valutaNoua),
                             "Succes",
                             JOptionPane.INFORMATION_MESSAGE
                     );
@@ -182,10 +181,8 @@ public class ClientFrame extends JFrame {
                     actualizeazaConturi();
 
 
-                    AuditService.log(String.format(
-                            "Conversie valută: Cont %d din %s în %s (%.2f → %.2f)",
-                            contId, valutaCurenta, valutaNoua, soldCurent, soldConvertit
-                    ));
+                    AuditService.log(TipEveniment.CONVERSIE_VALUTA_GUI, valutaCurenta, valutaNoua,
+                            contId, Bani.laDouble(soldCurent), Bani.laDouble(soldConvertit));
 
                 } catch (Exception ex) {
                     JOptionPane.showMessageDialog(
@@ -219,8 +216,8 @@ public class ClientFrame extends JFrame {
                 }
 
 
-                double sold = cont.getSold();
-                if (Math.abs(sold) > 0.01) {
+                long sold = cont.getSold();
+                if (sold != 0) {
 
                     String mesaj = String.format("""
                 Nu poți inchide acest cont!
@@ -234,7 +231,7 @@ public class ClientFrame extends JFrame {
                 • Transfera banii în alt cont
                
                 """,
-                            contId, sold, cont.getValuta()
+                            contId, Bani.laDouble(sold), cont.getValuta()
                     );
 
                     JOptionPane.showMessageDialog(
@@ -295,8 +292,8 @@ public class ClientFrame extends JFrame {
                             String.format("""
                      Contul %d a fost inchis cu succes!
                     
-                    Contul si tranzactiile asociate 
-                    au fost șterse definitiv.
+                    Tranzactiile contului raman 
+                    in istoric.
                     """,
                                     contId),
                             "Succes",
@@ -347,17 +344,15 @@ public class ClientFrame extends JFrame {
 
     private void actualizeazaConturi() {
         tableModel.setRowCount(0);
-        for (ContBancar c : banca.getConturi().values()) {
-            if (c.getClient().getId() == client.getId()) {
-                tableModel.addRow(new Object[]{
-                        c.getId(),
-                        c.getClass().getSimpleName() + (c instanceof ContEconomii ce ? " (" + ce.getTip() + ")" : ""),
-                        String.format("%.2f", c.getSold()),
-                        c.getValuta(),
-                        c.getCreationDate().toLocalDate(),
-                        c instanceof ContEconomii ce ? String.format("%.2f", ce.getDobandaAcumulata()) : "-"
-                });
-            }
+        for (ContBancar c : banca.conturiClient(client.getId())) {
+            tableModel.addRow(new Object[]{
+                    c.getId(),
+                    c.getClass().getSimpleName() + (c instanceof ContEconomii ce ? " (" + ce.getTip() + ")" : ""),
+                    Bani.formateaza(c.getSold()),
+                    c.getValuta(),
+                    c.getCreationDate().toLocalDate(),
+                    c instanceof ContEconomii ce ? Bani.formateaza(ce.getDobandaAcumulata()) : "-"
+            });
         }
     }
 
@@ -377,7 +372,7 @@ public class ClientFrame extends JFrame {
         gbc.fill = GridBagConstraints.HORIZONTAL;
 
         JComboBox<String> tipBox = new JComboBox<>(new String[]{"CURENT", "ECONOMII", "CREDIT"});
-        JComboBox<String> valutaBox = new JComboBox<>(new String[]{"RON", "EUR", "USD", "GBP"});
+        JComboBox<Valuta> valutaBox = new JComboBox<>(Valuta.values());
         JTextField soldField = new JTextField("0");
 
         gbc.gridx = 0; gbc.gridy = 0; panel.add(new JLabel("Tip cont:"), gbc);
@@ -394,8 +389,8 @@ public class ClientFrame extends JFrame {
         createBtn.addActionListener(e -> {
             try {
                 String tip = (String) tipBox.getSelectedItem();
-                String valuta = (String) valutaBox.getSelectedItem();
-                double sold = Double.parseDouble(soldField.getText().trim());
+                Valuta valuta = (Valuta) valutaBox.getSelectedItem();
+                long sold = Bani.parseaza(soldField.getText());
 
                 if (tip.equals("ECONOMII")) {
                     // Pop-up pentru alegerea tipului de cont Economii
@@ -487,14 +482,12 @@ public class ClientFrame extends JFrame {
             gbc.fill = GridBagConstraints.HORIZONTAL;
 
             JComboBox<String> contBox = new JComboBox<>();
-            for (ContBancar c : banca.getConturi().values()) {
-                if (c.getClient().getId() == client.getId()) {
-                    contBox.addItem(c.getId() + " - " + c.getClass().getSimpleName() + " (" + c.getValuta() + ")");
-                }
+            for (ContBancar c : banca.conturiClient(client.getId())) {
+                contBox.addItem(c.getId() + " - " + c.getClass().getSimpleName() + " (" + c.getValuta() + ")");
             }
 
             JTextField sumaField = new JTextField();
-            JComboBox<String> valutaBox = new JComboBox<>(new String[]{"RON", "EUR", "USD", "GBP"});
+            JComboBox<Valuta> valutaBox = new JComboBox<>(Valuta.values());
             JButton depuneBtn = new JButton("Depune");
 
             gbc.gridx = 0; gbc.gridy = 0; contentPanel.add(new JLabel("Alege contul:"), gbc);
@@ -516,8 +509,8 @@ public class ClientFrame extends JFrame {
                     int contId = Integer.parseInt(contBox.getSelectedItem().toString().split(" ")[0]);
                     ContBancar cont = banca.getConturi().get(contId);
 
-                    double suma = Double.parseDouble(sumaField.getText().trim());
-                    String valutaSelectata = (String) valutaBox.getSelectedItem();
+                    long suma = Bani.parseaza(sumaField.getText());
+                    Valuta valutaSelectata = (Valuta) valutaBox.getSelectedItem();
 
                     if (suma <= 0) {
                         JOptionPane.showMessageDialog(this, "Introdu o suma validă.");
@@ -525,10 +518,10 @@ public class ClientFrame extends JFrame {
                     }
 
 
-                    double sumaDupaComision = suma;
+                    long sumaDupaComision = suma;
 
 
-                    if (cont.getValuta().equalsIgnoreCase(valutaSelectata)) {
+                    if (cont.getValuta() == valutaSelectata) {
                         int confirm = JOptionPane.showConfirmDialog(this,
                                 String.format("""
                                     Depunere în %s:
@@ -537,17 +530,17 @@ public class ClientFrame extends JFrame {
                                     
                                     Doresti sa continui?
                                     """,
-                                        cont.getValuta(), suma, valutaSelectata,
-                                        sumaDupaComision, cont.getValuta()),
+                                        cont.getValuta(), Bani.laDouble(suma), valutaSelectata,
+                                        Bani.laDouble(sumaDupaComision), cont.getValuta()),
                                 "Confirmare depunere",
                                 JOptionPane.OK_CANCEL_OPTION,
                                 JOptionPane.QUESTION_MESSAGE);
                         if (confirm != JOptionPane.OK_OPTION) return;
-                        cont.setSold(cont.getSold() + sumaDupaComision);
+                        banca.depune(client, contId, sumaDupaComision);
                     }
 
                     else {
-                        double sumaConvertita = CursValutarService.convertCuMatrice(
+                        long sumaConvertita = CursValutarService.convertBani(
                                 sumaDupaComision, valutaSelectata, cont.getValuta()
                         );
 
@@ -560,16 +553,15 @@ public class ClientFrame extends JFrame {
                                 
                                 Doresti sa continui?
                                 """,
-                                        suma, valutaSelectata,
-                                        sumaConvertita, cont.getValuta()),
+                                        Bani.laDouble(suma), valutaSelectata,
+                                        Bani.laDouble(sumaConvertita), cont.getValuta()),
                                 "Conversie valutara",
                                 JOptionPane.OK_CANCEL_OPTION,
                                 JOptionPane.WARNING_MESSAGE);
                         if (confirm != JOptionPane.OK_OPTION) return;
-                        cont.setSold(cont.getSold() + sumaConvertita);
+                        banca.depune(client, contId, sumaConvertita);
                     }
 
-                    banca.salveazaDate();
                     JOptionPane.showMessageDialog(this, "Depunere efectuata cu succes!");
                     actualizeazaConturi();
 
@@ -592,14 +584,12 @@ public class ClientFrame extends JFrame {
             gbc.fill = GridBagConstraints.HORIZONTAL;
 
             JComboBox<String> contBox = new JComboBox<>();
-            for (ContBancar c : banca.getConturi().values()) {
-                if (c.getClient().getId() == client.getId()) {
-                    contBox.addItem(c.getId() + " - " + c.getClass().getSimpleName() + " (" + c.getValuta() + ")");
-                }
+            for (ContBancar c : banca.conturiClient(client.getId())) {
+                contBox.addItem(c.getId() + " - " + c.getClass().getSimpleName() + " (" + c.getValuta() + ")");
             }
 
             JTextField sumaField = new JTextField();
-            JComboBox<String> valutaBox = new JComboBox<>(new String[]{"RON", "EUR", "USD", "GBP"});
+            JComboBox<Valuta> valutaBox = new JComboBox<>(Valuta.values());
             JButton retrageBtn = new JButton("Retrage");
 
             gbc.gridx = 0; gbc.gridy = 0; contentPanel.add(new JLabel("Alege contul:"), gbc);
@@ -621,8 +611,8 @@ public class ClientFrame extends JFrame {
                     int contId = Integer.parseInt(contBox.getSelectedItem().toString().split(" ")[0]);
                     ContBancar cont = banca.getConturi().get(contId);
 
-                    double suma = Double.parseDouble(sumaField.getText().trim());
-                    String valutaSelectata = (String) valutaBox.getSelectedItem();
+                    long suma = Bani.parseaza(sumaField.getText());
+                    Valuta valutaSelectata = (Valuta) valutaBox.getSelectedItem();
 
                     if (suma <= 0) {
                         JOptionPane.showMessageDialog(this, "Introdu o sumă valida.");
@@ -630,11 +620,11 @@ public class ClientFrame extends JFrame {
                     }
 
 
-                    double sumaInValutaCont;
-                    if (cont.getValuta().equalsIgnoreCase(valutaSelectata)) {
+                    long sumaInValutaCont;
+                    if (cont.getValuta() == valutaSelectata) {
                         sumaInValutaCont = suma;
                     } else {
-                        sumaInValutaCont = CursValutarService.convertCuMatrice(suma, valutaSelectata, cont.getValuta());
+                        sumaInValutaCont = CursValutarService.convertBani(suma, valutaSelectata, cont.getValuta());
                     }
 
 
@@ -646,16 +636,15 @@ public class ClientFrame extends JFrame {
                 
                 Doresti sa continui?
                 """,
-                                    suma, valutaSelectata,
-                                    sumaInValutaCont, cont.getValuta()),
+                                    Bani.laDouble(suma), valutaSelectata,
+                                    Bani.laDouble(sumaInValutaCont), cont.getValuta()),
                             "Confirmare retragere",
                             JOptionPane.OK_CANCEL_OPTION);
 
                     if (confirm != JOptionPane.OK_OPTION) return;
 
 
-                    cont.retrage(sumaInValutaCont);
-                    banca.salveazaDate();
+                    banca.retrage(client, contId, sumaInValutaCont);
 
                     JOptionPane.showMessageDialog(this, "Retragere efectuată cu succes!");
                     actualizeazaConturi();
@@ -681,10 +670,8 @@ public class ClientFrame extends JFrame {
 
 
             JComboBox<String> contSursaBox = new JComboBox<>();
-            for (ContBancar c : banca.getConturi().values()) {
-                if (c.getClient().getId() == client.getId()) {
-                    contSursaBox.addItem(c.getId() + " - " + c.getClass().getSimpleName() + " (" + c.getValuta() + ")");
-                }
+            for (ContBancar c : banca.conturiClient(client.getId())) {
+                contSursaBox.addItem(c.getId() + " - " + c.getClass().getSimpleName() + " (" + c.getValuta() + ")");
             }
 
 
@@ -701,7 +688,7 @@ public class ClientFrame extends JFrame {
                 }
             });
 
-            JComboBox<String> valutaBox = new JComboBox<>(new String[]{"RON", "EUR", "USD", "GBP"});
+            JComboBox<Valuta> valutaBox = new JComboBox<>(Valuta.values());
             JButton transferaBtn = new JButton("Transfera");
 
             gbc.gridx = 0; gbc.gridy = 0; contentPanel.add(new JLabel("Din contul:"), gbc);
@@ -734,39 +721,41 @@ public class ClientFrame extends JFrame {
                     ContBancar sursa = banca.getConturi().get(idSursa);
                     ContBancar destinatie = banca.getConturi().get(idDest);
 
-                    double suma = Double.parseDouble(sumaField.getText().trim());
+                    long suma = Bani.parseaza(sumaField.getText());
                     if (suma <= 0) {
                         JOptionPane.showMessageDialog(this, "Introdu o suma valida!");
                         return;
                     }
 
-                    String valutaSelectata = (String) valutaBox.getSelectedItem();
+                    Valuta valutaSelectata = (Valuta) valutaBox.getSelectedItem();
+                    // Acelasi curs pentru suma afisata la confirmare si pentru transferul efectuat
+                    CursuriValutare curs = CursValutarService.instantaneu();
 
-
-                    double sumaInValutaSursa;
-                    if (valutaSelectata.equalsIgnoreCase(sursa.getValuta())) {
+                    long sumaInValutaSursa;
+                    if (valutaSelectata == sursa.getValuta()) {
                         sumaInValutaSursa = suma;
                     } else {
-                        sumaInValutaSursa = CursValutarService.convertCuMatrice(suma, valutaSelectata, sursa.getValuta());
+                        sumaInValutaSursa = curs.convertesteBani(suma, valutaSelectata, sursa.getValuta());
                     }
 
 
 
-                    double sumaTotalaSursa = sumaInValutaSursa;
+                    long sumaTotalaSursa = sumaInValutaSursa;
 
 
                     if (sursa.getSold() < sumaTotalaSursa) {
                         JOptionPane.showMessageDialog(this,
                                 String.format("Fonduri insuficiente!\nNecesar: %.2f %s\nDisponibil: %.2f %s",
-                                        sumaTotalaSursa, sursa.getValuta(), sursa.getSold(), sursa.getValuta()));
+                                        Bani.laDouble(sumaTotalaSursa), sursa.getValuta(),
+                                        Bani.laDouble(sursa.getSold()), sursa.getValuta()));
                         return;
                     }
 
-                    double sumaInValutaDest;
-                    if (sursa.getValuta().equalsIgnoreCase(destinatie.getValuta())) {
+                    long sumaInValutaDest;
+                    if (sursa.getValuta() == destinatie.getValuta()) {
                         sumaInValutaDest = sumaInValutaSursa;
                     } else {
-                        sumaInValutaDest = CursValutarService.convertCuMatrice(
+                        sumaInValutaDest = curs.convertesteBani(
                                 sumaInValutaSursa, sursa.getValuta(), destinatie.getValuta()
                         );
                     }
@@ -774,21 +763,21 @@ public class ClientFrame extends JFrame {
 
                     StringBuilder mesaj = new StringBuilder();
                     mesaj.append("Transfer bancar:\n\n");
-                    mesaj.append(String.format("Suma initiala: %.2f %s\n", suma, valutaSelectata));
-                    if (!valutaSelectata.equalsIgnoreCase(sursa.getValuta())) {
+                    mesaj.append(String.format("Suma initiala: %.2f %s\n", Bani.laDouble(suma), valutaSelectata));
+                    if (valutaSelectata != sursa.getValuta()) {
                         mesaj.append(String.format("Echivalent în cont sursa: %.2f %s\n",
-                                sumaInValutaSursa, sursa.getValuta()));
+                                Bani.laDouble(sumaInValutaSursa), sursa.getValuta()));
                     }
 
                     mesaj.append(String.format("Total retras din sursa: %.2f %s\n\n",
-                            sumaTotalaSursa, sursa.getValuta()));
-                    if (!sursa.getValuta().equalsIgnoreCase(destinatie.getValuta())) {
+                            Bani.laDouble(sumaTotalaSursa), sursa.getValuta()));
+                    if (sursa.getValuta() != destinatie.getValuta()) {
                         mesaj.append(String.format("Conversie: %.2f %s → %.2f %s\n\n",
-                                sumaInValutaSursa, sursa.getValuta(),
-                                sumaInValutaDest, destinatie.getValuta()));
+                                Bani.laDouble(sumaInValutaSursa), sursa.getValuta(),
+                                Bani.laDouble(sumaInValutaDest), destinatie.getValuta()));
                     }
                     mesaj.append(String.format("Se adaugă în destinatie: %.2f %s\n\n",
-                            sumaInValutaDest, destinatie.getValuta()));
+                            Bani.laDouble(sumaInValutaDest), destinatie.getValuta()));
                     mesaj.append("Doresti sa continui?");
 
                     int confirm = JOptionPane.showConfirmDialog(this, mesaj.toString(),
@@ -797,7 +786,7 @@ public class ClientFrame extends JFrame {
                     if (confirm != JOptionPane.OK_OPTION) return;
 
 
-                    banca.transfera(client, idSursa, idDest, sumaInValutaSursa);
+                    banca.transfera(client, idSursa, idDest, sumaInValutaSursa, curs);
 
                     JOptionPane.showMessageDialog(this, "Transfer efectuat cu succes!");
                     actualizeazaConturi();
@@ -823,6 +812,10 @@ public class ClientFrame extends JFrame {
     /**
      * Creeaza panoul pentru statistici conturi.
      * Afiseaza soldurile pe tipuri de cont si graficul pieselor.
+     * <p>
+     * Graficul este creat o singura data; la refresh se actualizeaza doar valorile din
+     * setul lui de date, iar JFreeChart redeseneaza singur graficul.
+     * </p>
      * @return JPanel cu statistici si grafic
      */
     private JPanel creeazaPanelStatistici() {
@@ -845,64 +838,9 @@ public class ClientFrame extends JFrame {
 
         panel.add(splitPane, BorderLayout.CENTER);
 
-        JButton refreshBtn = new JButton("Refresh");
-        refreshBtn.addActionListener(e -> actualizeazaStatistici(chartPanel, statsArea));
-
-        panel.add(refreshBtn, BorderLayout.SOUTH);
-
-        // Actualizare inițială
-        actualizeazaStatistici(chartPanel, statsArea);
-
-        return panel;
-    }
-
-    /**
-     * Actualizeaza panoul de statistici cu datele curente.
-     * @param chartPanel JPanel pentru graficul circular
-     * @param statsArea JTextArea pentru statistici textuale
-     */
-
-    private void actualizeazaStatistici(JPanel chartPanel, JTextArea statsArea) {
-        double total = 0, curent = 0, economii = 0, credit = 0;
-        int nrCurent = 0, nrEconomii = 0, nrCredit = 0;
-
-        for (ContBancar c : banca.getConturi().values()) {
-            if (c.getClient().getId() == client.getId()) {
-                double sold = c.getSold();
-                total += sold;
-
-                if (c instanceof ContCurent) {
-                    curent += sold;
-                    nrCurent++;
-                } else if (c instanceof ContEconomii) {
-                    economii += sold;
-                    nrEconomii++;
-                } else if (c instanceof ContCredit) {
-                    credit += sold;
-                    nrCredit++;
-                }
-            }
-        }
-
-        // Actualizare text statistici
-        StringBuilder stats = new StringBuilder();
-        stats.append("     STATISTICI CONTURI\n");
-        stats.append(String.format("SOLD TOTAL: %.2f RON\n\n", total));
-        stats.append(String.format("Conturi Curente (%d):\n", nrCurent));
-        stats.append(String.format("%.2f RON (%.1f%%)\n\n", curent, total > 0 ? (curent/total)*100 : 0));
-        stats.append(String.format("Conturi Economii (%d):\n", nrEconomii));
-        stats.append(String.format("%.2f RON (%.1f%%)\n\n", economii, total > 0 ? (economii/total)*100 : 0));
-        stats.append(String.format("Conturi Credit (%d):\n", nrCredit));
-        stats.append(String.format("%.2f RON (%.1f%%)\n", credit, total > 0 ? (credit/total)*100 : 0));
-        statsArea.setText(stats.toString());
-
-        // Creare dataset pentru pie chart
+        // Setul de date al graficului, actualizat pe loc la fiecare refresh
         DefaultPieDataset dataset = new DefaultPieDataset();
 
-        if (curent > 0) dataset.setValue("Cont Curent", curent);
-        if (economii > 0) dataset.setValue("Cont Economii", economii);
-        if (credit > 0) dataset.setValue("Cont Credit", credit);
-
         // Creare pie chart
         JFreeChart chart = ChartFactory.createPieChart(
                 "Distribuția Soldurilor",
@@ -945,13 +883,80 @@ public class ClientFrame extends JFrame {
 //        chart.getLegend().setFrame(new org.jfree.chart.block.BlockBorder(Color.LIGHT_GRAY));
 
         // Adaugare în panel
-        chartPanel.removeAll();
         ChartPanel cp = new ChartPanel(chart);
         cp.setPreferredSize(new Dimension(400, 400));
         cp.setMouseWheelEnabled(true);
         chartPanel.add(cp, BorderLayout.CENTER);
-        chartPanel.revalidate();
-        chartPanel.repaint();
+
+        JButton refreshBtn = new JButton("Refresh");
+        refreshBtn.addActionListener(e -> actualizeazaStatistici(dataset, statsArea));
+
+        panel.add(refreshBtn, BorderLayout.SOUTH);
+
+        // Actualizare inițială
+        actualizeazaStatistici(dataset, statsArea);
+
+        return panel;
+    }
+
+    /**
+     * Actualizeaza panoul de statistici cu datele curente.
+     * Totalurile vin din agregatele tinute la zi de banca, nu din parcurgerea conturilor.
+     * @param dataset setul de date al graficului circular
+     * @param statsArea JTextArea pentru statistici textuale
+     */
+
+    private void actualizeazaStatistici(DefaultPieDataset dataset, JTextArea statsArea) {
+        SolduriClient.Instantaneu solduri = banca.solduriClient(client.getId());
+
+        // Soldurile sunt in valute diferite: se convertesc toate in RON, cu acelasi instantaneu de cursuri
+        CursuriValutare curs = CursValutarService.instantaneu();
+        double curent;
+        double economii;
+        double credit;
+        try {
+            curent = solduri.total(SolduriClient.TipCont.CURENT, Valuta.RON, curs);
+            economii = solduri.total(SolduriClient.TipCont.ECONOMII, Valuta.RON, curs);
+            credit = solduri.total(SolduriClient.TipCont.CREDIT, Valuta.RON, curs);
+        } catch (IllegalStateException e) {
+            // Fara cursuri nu se afiseaza totaluri aproximative
+            statsArea.setText("     STATISTICI CONTURI\n" + e.getMessage());
+            dataset.clear();
+            return;
+        }
+        double total = curent + economii + credit;
+
+        int nrCurent = solduri.numarConturi(SolduriClient.TipCont.CURENT);
+        int nrEconomii = solduri.numarConturi(SolduriClient.TipCont.ECONOMII);
+        int nrCredit = solduri.numarConturi(SolduriClient.TipCont.CREDIT);
+
+        // Actualizare text statistici
+        StringBuilder stats = new StringBuilder();
+        stats.append("     STATISTICI CONTURI\n");
+        stats.append(String.format("SOLD TOTAL: %.2f RON\n\n", total));
+        stats.append(String.format("Conturi Curente (%d):\n", nrCurent));
+        stats.append(String.format("%.2f RON (%.1f%%)\n\n", curent, total > 0 ? (curent/total)*100 : 0));
+        stats.append(String.format("Conturi Economii (%d):\n", nrEconomii));
+        stats.append(String.format("%.2f RON (%.1f%%)\n\n", economii, total > 0 ? (economii/total)*100 : 0));
+        stats.append(String.format("Conturi Credit (%d):\n", nrCredit));
+        stats.append(String.format("%.2f RON (%.1f%%)\n", credit, total > 0 ? (credit/total)*100 : 0));
+        statsArea.setText(stats.toString());
+
+        // Actualizare pe loc a setului de date; graficul asculta modificarile lui
+        actualizeazaSectiune(dataset, "Cont Curent", curent);
+        actualizeazaSectiune(dataset, "Cont Economii", economii);
+        actualizeazaSectiune(dataset, "Cont Credit", credit);
+    }
+
+    /**
+     * Seteaza valoarea unei sectiuni a graficului sau o scoate, daca valoarea nu este pozitiva.
+     */
+    private void actualizeazaSectiune(DefaultPieDataset dataset, String sectiune, double valoare) {
+        if (valoare > 0) {
+            dataset.setValue(sectiune, valoare);
+        } else if (dataset.getIndex(sectiune) >= 0) {
+            dataset.remove(sectiune);
+        }
     }
 
 
@@ -967,15 +972,12 @@ public class ClientFrame extends JFrame {
         JComboBox<String> conturiClientBox = new JComboBox<>();
         conturiClientBox.addItem("Toate conturile"); // opțiune implicită
 
-        for (ContBancar c : banca.getConturi().values()) {
-            if (c.getClient().getId() == client.getId()) {
-                conturiClientBox.addItem(c.getId() + " - " + c.getClass().getSimpleName() + " (" + c.getValuta() + ")");
-            }
+        for (ContBancar c : banca.conturiClient(client.getId())) {
+            conturiClientBox.addItem(c.getId() + " - " + c.getClass().getSimpleName() + " (" + c.getValuta() + ")");
         }
 
-        // Modelul tabelului
-        String[] coloane = {"ID", "Sursa", "Destinatie", "Suma", "Tip", "Data"};
-        DefaultTableModel model = new DefaultTableModel(coloane, 0);
+        // Modelul tabelului: celulele sunt citite din jurnal doar cand sunt afisate
+        ModelTabelTranzactii model = new ModelTabelTranzactii(banca, formatter);
         JTable tabela = new JTable(model);
         tabela.setRowHeight(25);
 
@@ -991,36 +993,16 @@ public class ClientFrame extends JFrame {
 
 
         Runnable actualizeazaTabel = () -> {
-            model.setRowCount(0);
             String selectie = (String) conturiClientBox.getSelectedItem();
 
-            for (Tranzactie t : banca.getTranzactii()) {
-                // Dacă e "Toate conturile", le afișăm pe toate
-                if (selectie.equals("Toate conturile")) {
-                    model.addRow(new Object[]{
-                            t.getId(),
-                            t.getSursa().getClient().getNume() + " (" + t.getSursa().getId() + ")",
-                            t.getDestinatie().getClient().getNume() + " (" + t.getDestinatie().getId() + ")",
-                            String.format("%.2f %s", t.getSuma(), t.getSursa().getValuta()),
-                            t.getData().format(formatter)
-                    });
-                    continue;
-                }
-
-
-
-                // Extragem ID-ul contului selectat
-                int contIdSelectat = Integer.parseInt(selectie.split(" ")[0]);
-                if (t.getSursa().getId() == contIdSelectat || t.getDestinatie().getId() == contIdSelectat) {
-                    model.addRow(new Object[]{
-                            t.getId(),
-                            t.getSursa().getClient().getNume() + " (" + t.getSursa().getId() + ")",
-                            t.getDestinatie().getClient().getNume() + " (" + t.getDestinatie().getId() + ")",
-                            String.format("%.2f %s", t.getSuma(), t.getSursa().getValuta()),
-                            t.getData().format(formatter)
-                    });
-                }
+            // Dacă e "Toate conturile", le afișăm pe toate
+            if (selectie.equals("Toate conturile")) {
+                model.arataToate();
+                return;
             }
+
+            // Extragem ID-ul contului selectat o singura data; tranzactiile lui vin din index
+            model.arataCont(Integer.parseInt(selectie.split(" ")[0]));
         };
 
 
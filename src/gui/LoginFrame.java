@@ -55,7 +55,7 @@ public class LoginFrame extends JFrame {
             String parola = new String(passField.getPassword()).trim();
             Client c = banca.autentifica(email, parola);
             if (c != null) {
-                AuditService.log("Utilizator autentificat GUI: " + email);
+                AuditService.log(TipEveniment.LOGIN_GUI_REUSIT, email);
                 JOptionPane.showMessageDialog(this, "Autentificare reusita. Bun venit, " + c.getNume());
 
                 SwingUtilities.invokeLater(() -> {
@@ -63,7 +63,7 @@ public class LoginFrame extends JFrame {
                 });
                 this.dispose();
             } else {
-                AuditService.log("Autentificare esuata GUI: " + email);
+                AuditService.log(TipEveniment.LOGIN_GUI_ESUAT, email);
                 JOptionPane.showMessageDialog(this, "Email/parola incorecte.");
             }
         });
@@ -0,0 +1,140 @@
+package gui;
+
+import model.Bani;
+import model.ContBancar;
+import service.Banca;
+import service.JurnalTranzactii;
+
+import javax.swing.table.AbstractTableModel;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Modelul tabelului din tab-ul de istoric al tranzactiilor.
+ * <p>
+ * Modelul nu copiaza tranzactiile si nu pregateste randuri: tine doar numarul de randuri, iar
+ * {@link #getValueAt(int, int)} citeste si formateaza celula ceruta direct din
+ * {@link JurnalTranzactii}. Tabelul cere doar celulele vizibile, deci un istoric de un milion
+ * de tranzactii se deschide imediat si foloseste aceeasi memorie ca unul mic.
+ * </p>
+ * <p>
+ * Pentru toate tranzactiile, randul este chiar pozitia in jurnal. Pentru un singur cont,
+ * pozitiile vin din indexul pe cont al bancii, citite cate o pagina, pe masura ce se deruleaza.
+ * O tranzactie sosita in afara ordinii muta pozitiile de dupa ea, deci pagina citita este
+ * folosita doar cat timp numarul de tranzactii al contului este cel de la citirea ei.
+ * </p>
+ */
+class ModelTabelTranzactii extends AbstractTableModel {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final String[] COLOANE = {"ID", "Sursa", "Destinatie", "Suma", "Data"};
+
+    /** Cate pozitii se citesc odata din indexul pe cont. */
+    private static final int PAGINA = 256;
+
+    /** Valoarea lui {@link #idCont} cand se afiseaza toate tranzactiile. */
+    private static final int TOATE = -1;
+
+    private final Banca banca;
+    private final JurnalTranzactii jurnal;
+    private final DateTimeFormatter formatter;
+
+    private int idCont = TOATE;
+    private int numar;
+
+    private final int[] pagina = new int[PAGINA];
+    private int inceputPagina;
+    private int numarPagina;
+    /** Numarul de tranzactii al contului cand a fost citita pagina. */
+    private int numarLaPagina;
+
+    ModelTabelTranzactii(Banca banca, DateTimeFormatter formatter) {
+        this.banca = banca;
+        this.jurnal = banca.getTranzactii();
+        this.formatter = formatter;
+    }
+
+    /** Afiseaza toate tranzactiile din jurnal. */
+    void arataToate() {
+        idCont = TOATE;
+        numar = jurnal.numar();
+        golestePagina();
+    }
+
+    /** Afiseaza doar tranzactiile unui cont. */
+    void arataCont(int idCont) {
+        this.idCont = idCont;
+        numar = banca.numarTranzactiiCont(idCont);
+        golestePagina();
+    }
+
+    private void golestePagina() {
+        inceputPagina = 0;
+        numarPagina = 0;
+        fireTableDataChanged();
+    }
+
+    /**
+     * @return pozitia in jurnal a tranzactiei de pe rand sau -1 daca nu mai exista
+     *         (contul a fost inchis dupa ce a fost afisat)
+     */
+    private int pozitie(int rand) {
+        if (idCont == TOATE) return rand;
+        int numarCont = banca.numarTranzactiiCont(idCont);
+        if (numarCont != numarLaPagina || rand < inceputPagina || rand >= inceputPagina + numarPagina) {
+            numarLaPagina = numarCont;
+            inceputPagina = rand - rand % PAGINA;
+            numarPagina = banca.paginaTranzactiiCont(idCont, inceputPagina, pagina);
+            if (rand >= inceputPagina + numarPagina) return -1;
+        }
+        return pagina[rand - inceputPagina];
+    }
+
+    @Override
+    public int getRowCount() {
+        return numar;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLOANE.length;
+    }
+
+    @Override
+    public String getColumnName(int coloana) {
+        return COLOANE[coloana];
+    }
+
+    @Override
+    public Object getValueAt(int rand, int coloana) {
+        int p = pozitie(rand);
+        if (p < 0) return "";
+
+        switch (coloana) {
+            case 0:
+                return jurnal.id(p);
+            case 1:
+                return descriereCont(jurnal.idSursa(p));
+            case 2:
+                return descriereCont(jurnal.idDestinatie(p));
+            case 3:
+                return Bani.formateaza(jurnal.suma(p)) + " " + jurnal.valuta(p);
+            default:
+                return LocalDateTime.ofInstant(Instant.ofEpochMilli(jurnal.moment(p)), ZoneId.systemDefault())
+                        .format(formatter);
+        }
+    }
+
+    /**
+     * Descrie un cont din istoric: titularul si id-ul, sau doar id-ul daca a fost inchis.
+     */
+    private String descriereCont(int idCont) {
+        ContBancar cont = banca.getConturi().get(idCont);
+        return cont == null
+                ? "Cont inchis (" + idCont + ")"
+                : cont.getClient().getNume() + " (" + idCont + ")";
+    }
+}
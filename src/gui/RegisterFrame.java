@@ -15,7 +15,8 @@ public class RegisterFrame extends JFrame {
     private JTextField numeField, emailField;
     private JPasswordField parolaField;
     private JTextField soldField;
-    private JComboBox<String> tipContBox, valutaBox;
+    private JComboBox<String> tipContBox;
+    private JComboBox<Valuta> valutaBox;
 
     public RegisterFrame(Banca banca) {
         this.banca = banca;
@@ -69,7 +70,7 @@ public class RegisterFrame extends JFrame {
         gbc.gridx = 0; gbc.gridy = 4;
         formPanel.add(new JLabel("Valuta:"), gbc);
         gbc.gridx = 1;
-        valutaBox = new JComboBox<>(new String[]{"RON", "EUR", "USD", "GBP"});
+        valutaBox = new JComboBox<>(Valuta.values());
         valutaBox.setFont(font);
         formPanel.add(valutaBox, gbc);
 
@@ -99,11 +100,11 @@ public class RegisterFrame extends JFrame {
                 Validare.valideazaEmail(email);
                 Validare.valideazaParola(parola);
                 String tip = (String) tipContBox.getSelectedItem();
-                String valuta = (String) valutaBox.getSelectedItem();
-                double sold = Double.parseDouble(soldField.getText().trim());
+                Valuta valuta = (Valuta) valutaBox.getSelectedItem();
+                long sold = Bani.parseaza(soldField.getText());
 
                 Client c = banca.creeazaClientSiCont(nume, email, parola, tip, valuta, sold);
-                AuditService.log("Inregistrare GUI: " + email);
+                AuditService.log(TipEveniment.INREGISTRARE_GUI, email);
                 JOptionPane.showMessageDialog(this, "Cont creat cu succes! Te poti loga acum.");
 
                 SwingUtilities.invokeLater(() -> new LoginFrame(banca).setVisible(true));
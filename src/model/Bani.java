@@ -0,0 +1,137 @@
+package model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Clasa {@code Bani} contine operatiile cu sume de bani exprimate in subunitati.
+ * <p>
+ * Toate sumele din aplicatie (solduri, dobanzi, sume tranzactionate) sunt {@code long} in
+ * subunitati ale valutei (bani, centi, penny): 12,34 RON este {@code 1234}. Adunarea si scaderea
+ * sunt exacte, fara erori de rotunjire acumulate ca la {@code double} si fara costul
+ * {@link BigDecimal}. Doar inmultirea cu un factor (dobanda, curs valutar) produce fractiuni de
+ * subunitate, care se rotunjesc explicit, cu un mod de rotunjire ales pentru fiecare operatie.
+ * </p>
+ */
+public final class Bani {
+
+    /** Numarul de zecimale al unei sume. */
+    public static final int ZECIMALE = 2;
+
+    /** Cate subunitati are o unitate. */
+    public static final long SUBUNITATI = 100;
+
+    /** Rotunjirea dobanzilor: la jumatate spre par, fara deplasare sistematica intr-o directie. */
+    public static final RoundingMode ROTUNJIRE_DOBANDA = RoundingMode.HALF_EVEN;
+
+    /** Rotunjirea sumelor convertite intre valute. */
+    public static final RoundingMode ROTUNJIRE_CONVERSIE = RoundingMode.HALF_EVEN;
+
+    private Bani() {
+    }
+
+    /**
+     * Citeste o suma scrisa in unitati, de exemplu {@code "12.34"} sau {@code "1234.5"}.
+     * Zecimalele in plus se rotunjesc la jumatate spre par.
+     *
+     * @param text suma, cu punct sau virgula zecimala
+     * @return suma in subunitati
+     * @throws NumberFormatException daca textul nu este o suma valida
+     */
+    public static long parseaza(String text) {
+        try {
+            return new BigDecimal(text.trim().replace(',', '.'))
+                    .setScale(ZECIMALE, RoundingMode.HALF_EVEN)
+                    .unscaledValue()
+                    .longValueExact();
+        } catch (ArithmeticException e) {
+            throw new NumberFormatException("Suma prea mare: " + text);
+        }
+    }
+
+    /**
+     * Scrie o suma in unitati, cu exact doua zecimale si punct zecimal (de exemplu {@code "-12.05"}).
+     * Este formatul folosit in fisierele text.
+     *
+     * @param suma suma in subunitati
+     * @return textul sumei
+     */
+    public static String formateaza(long suma) {
+        StringBuilder sb = new StringBuilder(24);
+        adauga(sb, suma);
+        return sb.toString();
+    }
+
+    /**
+     * Adauga o suma, in formatul {@link #formateaza(long)}, la un {@link StringBuilder}.
+     */
+    public static StringBuilder adauga(StringBuilder sb, long suma) {
+        long abs = Math.abs(suma);
+        if (suma < 0) sb.append('-');
+        long rest = abs % SUBUNITATI;
+        sb.append(abs / SUBUNITATI).append('.');
+        if (rest < 10) sb.append('0');
+        return sb.append(rest);
+    }
+
+    /**
+     * Converteste o suma in unitati, pentru afisare sau pentru calcule aproximative
+     * (statistici, grafice). Nu se foloseste pentru a modifica solduri.
+     *
+     * @param suma suma in subunitati
+     * @return suma in unitati
+     */
+    public static double laDouble(long suma) {
+        return suma / (double) SUBUNITATI;
+    }
+
+    /**
+     * Converteste o valoare in unitati (de exemplu o suma veche, salvata ca {@code double})
+     * in subunitati, rotunjind la jumatate spre par.
+     *
+     * @param valoare suma in unitati
+     * @return suma in subunitati
+     */
+    public static long dinDouble(double valoare) {
+        return rotunjeste(valoare * SUBUNITATI, RoundingMode.HALF_EVEN);
+    }
+
+    /**
+     * Inmulteste o suma cu un factor (procent de dobanda, curs valutar) si rotunjeste rezultatul
+     * la o subunitate.
+     *
+     * @param suma suma in subunitati
+     * @param factor factorul
+     * @param rotunjire modul de rotunjire
+     * @return produsul, in subunitati
+     */
+    public static long inmulteste(long suma, double factor, RoundingMode rotunjire) {
+        return rotunjeste(suma * factor, rotunjire);
+    }
+
+    /**
+     * Rotunjeste un numar de subunitati (posibil fractionar) la un numar intreg.
+     *
+     * @throws IllegalArgumentException pentru {@link RoundingMode#UNNECESSARY}
+     */
+    static long rotunjeste(double subunitati, RoundingMode rotunjire) {
+        switch (rotunjire) {
+            case HALF_EVEN:
+                return (long) Math.rint(subunitati);
+            case HALF_UP:
+                return (long) (Math.signum(subunitati) * Math.floor(Math.abs(subunitati) + 0.5));
+            case HALF_DOWN:
+                return (long) (Math.signum(subunitati) * Math.ceil(Math.abs(subunitati) - 0.5));
+            case FLOOR:
+                return (long) Math.floor(subunitati);
+            case CEILING:
+                return (long) Math.ceil(subunitati);
+            case DOWN:
+                return (long) subunitati;
+            case UP:
+                return (long) (Math.signum(subunitati) * Math.ceil(Math.abs(subunitati)));
+            default:
+                throw new IllegalArgumentException("Mod de rotunjire nesuportat: " + rotunjire);
+        }
+    }
+}
@@ -16,14 +16,14 @@ public abstract class ContBancar {
     /** Identificatorul unic al contului. */
     protected int id;
 
-    /** Soldul curent al contului. */
-    protected double sold;
+    /** Soldul curent al contului, in subunitati ale valutei (vezi {@link Bani}). */
+    protected long sold;
 
     /** Clientul asociat contului. */
     protected Client client;
 
     /** Valuta in care este exprimat soldul. */
-    protected String valuta;
+    protected Valuta valuta;
 
     /** Data si ora crearii contului. */
     protected LocalDateTime creationDate;
@@ -32,12 +32,12 @@ public abstract class ContBancar {
      * Creeaza un cont bancar cu toate datele specificate.
      *
      * @param id           identificatorul unic al contului
-     * @param sold         soldul initial al contului
+     * @param sold         soldul initial al contului, in subunitati
      * @param client       clientul asociat contului
      * @param valuta       valuta contului
      * @param creationDate data si ora crearii contului
      */
-    public ContBancar(int id, double sold, Client client, String valuta, LocalDateTime creationDate) {
+    public ContBancar(int id, long sold, Client client, Valuta valuta, LocalDateTime creationDate) {
         this.id = id;
         this.sold = sold;
         this.client = client;
@@ -49,44 +49,44 @@ public abstract class ContBancar {
      * Creeaza un cont bancar cu data crearii setata la momentul actual.
      *
      * @param id     identificatorul unic al contului
-     * @param sold   soldul initial al contului
+     * @param sold   soldul initial al contului, in subunitati
      * @param client clientul asociat contului
      * @param valuta valuta contului
      */
-    public ContBancar(int id, double sold, Client client, String valuta) {
+    public ContBancar(int id, long sold, Client client, Valuta valuta) {
         this(id, sold, client, valuta, LocalDateTime.now());
     }
 
     /**
      * Retrage o suma din cont.
      *
-     * @param suma suma de retras
+     * @param suma suma de retras, in subunitati
      * @throws Exception daca fondurile sunt insuficiente
      */
-    public abstract void retrage(double suma) throws Exception;
+    public abstract void retrage(long suma) throws Exception;
 
     /**
      * Depune o suma in cont.
      *
-     * @param suma suma de depus
+     * @param suma suma de depus, in subunitati
      */
-    public abstract void depune(double suma);
+    public abstract void depune(long suma);
 
     /**
      * Returneaza soldul curent al contului.
      *
-     * @return soldul contului
+     * @return soldul contului, in subunitati
      */
-    public double getSold() {
+    public long getSold() {
         return sold;
     }
 
     /**
      * Seteaza soldul contului.
      *
-     * @param sold noul sold
+     * @param sold noul sold, in subunitati
      */
-    public void setSold(double sold) {
+    public void setSold(long sold) {
         this.sold = sold;
     }
 
@@ -113,7 +113,7 @@ public abstract class ContBancar {
      *
      * @return valuta contului
      */
-    public String getValuta() {
+    public Valuta getValuta() {
         return valuta;
     }
 
@@ -134,11 +134,11 @@ public abstract class ContBancar {
      * @param valutaNoua noua valuta dorita
      * @throws Exception daca contul este deja in aceasta valuta
      */
-    public void schimbaValuta(String valutaNoua) throws Exception {
-        if (this.valuta.equalsIgnoreCase(valutaNoua)) {
+    public void schimbaValuta(Valuta valutaNoua) throws Exception {
+        if (this.valuta == valutaNoua) {
             throw new Exception("Contul este deja in " + valutaNoua);
         }
-        double soldNou = service.CursValutarService.convertCuMatrice(this.sold, this.valuta, valutaNoua);
+        long soldNou = service.CursValutarService.convertBani(this.sold, this.valuta, valutaNoua);
         this.sold = soldNou;
         this.valuta = valutaNoua;
     }
@@ -150,7 +150,7 @@ public abstract class ContBancar {
      */
     @Override
     public String toString() {
-        return "Cont ID: " + id + " | Sold: " + sold + " " + valuta + " | Client: " + client.getNume()
+        return "Cont ID: " + id + " | Sold: " + Bani.formateaza(sold) + " " + valuta + " | Client: " + client.getNume()
                 + " | Creat: " + creationDate.toLocalDate().toString();
     }
 }
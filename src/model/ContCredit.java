@@ -12,8 +12,8 @@ import java.time.LocalDateTime;
  */
 public class ContCredit extends ContBancar {
 
-    /** Limita maxima de credit permisa (sold negativ maxim). */
-    private static final double LIMITA_CREDIT = -5000;
+    /** Limita maxima de credit permisa (sold negativ maxim), in bani: -5000 RON. */
+    private static final long LIMITA_CREDIT = -5000 * Bani.SUBUNITATI;
 
     /** Dobanda aplicata datoriei (pentru sold negativ). */
     private static final double DOBANDA = 0.1;
@@ -27,7 +27,7 @@ public class ContCredit extends ContBancar {
      * @param valuta        valuta contului
      * @param creationDate  data crearii contului
      */
-    public ContCredit(int id, double sold, Client client, String valuta, LocalDateTime creationDate) {
+    public ContCredit(int id, long sold, Client client, Valuta valuta, LocalDateTime creationDate) {
         super(id, sold, client, valuta, creationDate);
     }
 
@@ -39,24 +39,24 @@ public class ContCredit extends ContBancar {
      * @param client  clientul asociat contului
      * @param valuta  valuta contului
      */
-    public ContCredit(int id, double sold, Client client, String valuta) {
+    public ContCredit(int id, long sold, Client client, Valuta valuta) {
         super(id, sold, client, valuta);
     }
 
     /**
      * Retrage o suma din cont, verificand daca limita de credit nu este depasita.
      *
-     * @param suma suma de retras
+     * @param suma suma de retras, in subunitati
      * @throws Exception daca retragerea depaseste limita de credit
      */
     @Override
-    public void retrage(double suma) throws Exception {
-        if( this.getValuta().equals("RON")){
-            if (sold - suma < LIMITA_CREDIT)
-                throw new Exception("Limita de credit depasita!");
-        } else if (sold - suma < CursValutarService.convertCuMatrice(LIMITA_CREDIT,"RON","EUR")) {
+    public void retrage(long suma) throws Exception {
+        // Limita este stabilita in RON si se converteste in valuta contului
+        long limita = valuta == Valuta.RON
+                ? LIMITA_CREDIT
+                : CursValutarService.convertBani(LIMITA_CREDIT, Valuta.RON, valuta);
+        if (sold - suma < limita) {
             throw new Exception("Limita de credit depasita!");
-
         }
         sold -= suma;
     }
@@ -64,19 +64,19 @@ public class ContCredit extends ContBancar {
     /**
      * Depune o suma in cont.
      *
-     * @param suma suma de depus
+     * @param suma suma de depus, in subunitati
      */
     @Override
-    public void depune(double suma) {
+    public void depune(long suma) {
         sold += suma;
     }
 
     /**
      * Calculeaza dobanda aferenta datoriei, daca soldul este negativ.
      *
-     * @return valoarea dobanzii datorate
+     * @return valoarea dobanzii datorate, in subunitati
      */
-    public double calculeazaDobandaDatorie() {
-        return (sold < 0) ? -sold * DOBANDA : 0;
+    public long calculeazaDobandaDatorie() {
+        return (sold < 0) ? Bani.inmulteste(-sold, DOBANDA, Bani.ROTUNJIRE_DOBANDA) : 0;
     }
 }
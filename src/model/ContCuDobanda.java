@@ -13,7 +13,7 @@ public interface ContCuDobanda {
     /**
      * Calculeaza dobanda aferenta contului.
      *
-     * @return valoarea dobanzii calculate
+     * @return valoarea dobanzii calculate, in subunitati ale valutei contului
      */
-    double calculeazaDobanda();
+    long calculeazaDobanda();
 }
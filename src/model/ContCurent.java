@@ -19,7 +19,7 @@ public class ContCurent extends ContBancar {
      * @param valuta        valuta contului
      * @param creationDate  data crearii contului
      */
-    public ContCurent(int id, double sold, Client client, String valuta, LocalDateTime creationDate) {
+    public ContCurent(int id, long sold, Client client, Valuta valuta, LocalDateTime creationDate) {
         super(id, sold, client, valuta, creationDate);
     }
 
@@ -31,18 +31,18 @@ public class ContCurent extends ContBancar {
      * @param client  clientul asociat contului
      * @param valuta  valuta contului
      */
-    public ContCurent(int id, double sold, Client client, String valuta) {
+    public ContCurent(int id, long sold, Client client, Valuta valuta) {
         super(id, sold, client, valuta);
     }
 
     /**
      * Retrage o suma din cont.
      *
-     * @param suma suma de retras
+     * @param suma suma de retras, in subunitati
      * @throws Exception daca soldul este insuficient
      */
     @Override
-    public void retrage(double suma) throws Exception {
+    public void retrage(long suma) throws Exception {
         if (sold - suma < 0)
             throw new Exception("Sold insuficient!");
         sold -= suma;
@@ -51,10 +51,10 @@ public class ContCurent extends ContBancar {
     /**
      * Depune o suma in cont.
      *
-     * @param suma suma de depus
+     * @param suma suma de depus, in subunitati
      */
     @Override
-    public void depune(double suma) {
+    public void depune(long suma) {
         sold += suma;
     }
 }
@@ -2,6 +2,7 @@ package model;
 
 import exceptions.RetragereInainteDePerioadaException;
 import service.AuditService;
+import service.TipEveniment;
 
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
@@ -30,8 +31,8 @@ public class ContEconomii extends ContBancar implements ContCuDobanda {
     /** Dobanda pentru conturile de tip BONUS (5% dupa 4 luni). */
     private static final double DOBANDA_BONUS = 0.05;
 
-    /** Dobanda acumulata pana in prezent. */
-    private double dobandaAcumulata = 0.0;
+    /** Dobanda acumulata pana in prezent, in subunitati. */
+    private long dobandaAcumulata = 0;
 
     /** Tipul contului de economii. */
     private TipEconomii tipEconomii;
@@ -47,8 +48,8 @@ public class ContEconomii extends ContBancar implements ContCuDobanda {
      * @param tipEconomii               tipul contului de economii
      * @param dobandaAcumulataInitiala  dobanda acumulata initial
      */
-    public ContEconomii(int id, double sold, Client client, String valuta,
-                        LocalDateTime creationDate, TipEconomii tipEconomii, double dobandaAcumulataInitiala) {
+    public ContEconomii(int id, long sold, Client client, Valuta valuta,
+                        LocalDateTime creationDate, TipEconomii tipEconomii, long dobandaAcumulataInitiala) {
         super(id, sold, client, valuta, creationDate);
         this.tipEconomii = tipEconomii;
         this.dobandaAcumulata = dobandaAcumulataInitiala;
@@ -62,31 +63,31 @@ public class ContEconomii extends ContBancar implements ContCuDobanda {
      * @param client  clientul asociat contului
      * @param valuta  valuta contului
      */
-    public ContEconomii(int id, double sold, Client client, String valuta) {
-        this(id, sold, client, valuta, LocalDateTime.now(), TipEconomii.ECONOMII, 0.0);
+    public ContEconomii(int id, long sold, Client client, Valuta valuta) {
+        this(id, sold, client, valuta, LocalDateTime.now(), TipEconomii.ECONOMII, 0);
     }
 
     /**
      * Calculeaza dobanda aferenta contului, in functie de tipul acestuia si perioada scursa.
      *
-     * @return valoarea dobanzii calculate
+     * @return valoarea dobanzii calculate, in subunitati
      */
     @Override
-    public double calculeazaDobanda() {
+    public long calculeazaDobanda() {
         if (tipEconomii == TipEconomii.BONUS) {
             long luni = calculeazaLuniDeLaCreare();
-            return (luni >= 4) ? sold * DOBANDA_BONUS : 0.0;
+            return (luni >= 4) ? Bani.inmulteste(sold, DOBANDA_BONUS, Bani.ROTUNJIRE_DOBANDA) : 0;
         } else {
-            return sold * DOBANDA_ECONOMII;
+            return Bani.inmulteste(sold, DOBANDA_ECONOMII, Bani.ROTUNJIRE_DOBANDA);
         }
     }
 
     /**
      * Returneaza dobanda acumulata.
      *
-     * @return dobanda acumulata
+     * @return dobanda acumulata, in subunitati
      */
-    public double getDobandaAcumulata() {
+    public long getDobandaAcumulata() {
         return dobandaAcumulata;
     }
 
@@ -114,17 +115,38 @@ public class ContEconomii extends ContBancar implements ContCuDobanda {
      * @return numarul de luni trecute
      */
     public long calculeazaLuniDeLaCreare() {
-        return ChronoUnit.MONTHS.between(creationDate, LocalDateTime.now());
+        return calculeazaLuniDeLaCreare(LocalDateTime.now());
+    }
+
+    /**
+     * Calculeaza numarul de luni scurse de la crearea contului pana la un moment dat.
+     *
+     * @param moment momentul la care se face calculul
+     * @return numarul de luni trecute
+     */
+    public long calculeazaLuniDeLaCreare(LocalDateTime moment) {
+        return ChronoUnit.MONTHS.between(creationDate, moment);
     }
 
     /**
      * Aplica dobanda lunara in functie de tipul contului si actualizeaza valoarea dobanzii acumulate.
      */
     public void aplicaDobandaLunara() {
+        aplicaDobandaLunara(LocalDateTime.now());
+    }
+
+    /**
+     * Aplica dobanda lunara evaluata la un moment fix, folosit pentru toate conturile
+     * dintr-o rulare a dobanzii.
+     *
+     * @param momentEvaluare momentul fata de care se calculeaza vechimea contului
+     * @return dobanda adaugata in sold, in subunitati (0 daca nu se aplica dobanda)
+     */
+    public long aplicaDobandaLunara(LocalDateTime momentEvaluare) {
         double procent = 0.0;
 
         if (tipEconomii == TipEconomii.BONUS) {
-            long luni = calculeazaLuniDeLaCreare();
+            long luni = calculeazaLuniDeLaCreare(momentEvaluare);
             if (luni >= 4) {
                 procent = DOBANDA_BONUS;
             }
@@ -133,10 +155,12 @@ public class ContEconomii extends ContBancar implements ContCuDobanda {
         }
 
         if (procent > 0) {
-            double dobanda = sold * procent;
+            long dobanda = Bani.inmulteste(sold, procent, Bani.ROTUNJIRE_DOBANDA);
             sold += dobanda;
             dobandaAcumulata = dobanda;
+            return dobanda;
         }
+        return 0;
     }
 
     /**
@@ -145,12 +169,12 @@ public class ContEconomii extends ContBancar implements ContCuDobanda {
      * Pentru conturile de tip BONUS, arunca o exceptie daca retragerea are loc inainte de 4 luni.
      * </p>
      *
-     * @param suma suma de retras
+     * @param suma suma de retras, in subunitati
      * @throws Exception daca suma depaseste 50% din sold sau daca retragerea este prea devreme
      */
     @Override
-    public void retrage(double suma) throws Exception {
-        if (suma > sold * 0.5) {
+    public void retrage(long suma) throws Exception {
+        if (suma > sold / 2) {
             throw new Exception("Poti retrage maxim 50% din sold!");
         }
 
@@ -165,14 +189,14 @@ public class ContEconomii extends ContBancar implements ContCuDobanda {
     /**
      * Retragere fortata, folosita cand utilizatorul confirma pierderea dobanzii acumulate.
      *
-     * @param suma suma de retras
+     * @param suma suma de retras, in subunitati
      * @throws Exception daca suma depaseste 50% din sold
      */
-    public void retrageFortat(double suma) throws Exception {
-        if (suma > sold * 0.5) {
+    public void retrageFortat(long suma) throws Exception {
+        if (suma > sold / 2) {
             throw new Exception("Poti retrage maxim 50% din sold!");
         }
-        dobandaAcumulata = 0.0;
+        dobandaAcumulata = 0;
         sold -= suma;
     }
 
@@ -181,10 +205,10 @@ public class ContEconomii extends ContBancar implements ContCuDobanda {
     /**
      * Depune o suma in cont.
      *
-     * @param suma suma de depus
+     * @param suma suma de depus, in subunitati
      */
     @Override
-    public void depune(double suma) {
+    public void depune(long suma) {
         sold += suma;
     }
 
@@ -195,32 +219,32 @@ public class ContEconomii extends ContBancar implements ContCuDobanda {
      * @throws Exception daca valuta este aceeasi cu cea curenta
      */
     @Override
-    public void schimbaValuta(String valutaNoua) throws Exception {
-        if (this.valuta.equalsIgnoreCase(valutaNoua)) {
+    public void schimbaValuta(Valuta valutaNoua) throws Exception {
+        if (this.valuta == valutaNoua) {
             throw new Exception("Contul este deja in " + valutaNoua);
         }
 
-        String valutaVeche = this.valuta;
+        Valuta valutaVeche = this.valuta;
 
 
-        double soldNou = service.CursValutarService.convertCuMatrice(
+        long soldNou = service.CursValutarService.convertBani(
                 this.sold,
                 valutaVeche,
                 valutaNoua
         );
 
-        double dobandaNoua = this.dobandaAcumulata > 0
-                ? service.CursValutarService.convertCuMatrice(
+        long dobandaNoua = this.dobandaAcumulata > 0
+                ? service.CursValutarService.convertBani(
                 this.dobandaAcumulata,
                 valutaVeche,
                 valutaNoua
         )
-                : 0.0;
+                : 0;
 
         this.sold = soldNou;
         this.dobandaAcumulata = dobandaNoua;
         this.valuta = valutaNoua;
 
-        AuditService.log("Conversie efectuat: " + valutaVeche + " -> " + valutaNoua);
+        AuditService.log(TipEveniment.CONVERSIE_VALUTA, valutaVeche, valutaNoua);
     }
 }
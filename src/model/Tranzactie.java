@@ -1,148 +1,172 @@
 package model;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.time.ZoneId;
 
 /**
  * Clasa {@code Tranzactie} reprezinta o tranzactie efectuata intre doua conturi bancare.
  * <p>
- * O tranzactie contine informatii despre contul sursa, contul destinatie, suma transferata,
- * tipul tranzactiei si data la care a avut loc.
+ * O tranzactie contine id-urile contului sursa si al contului destinatie, suma transferata,
+ * valuta sumei si momentul la care a avut loc.
+ * </p>
+ * <p>
+ * Tranzactia este imutabila si nu tine referinte catre conturi: istoricul ramane valabil si
+ * dupa inchiderea unui cont, iar un obiect are doar cateva zeci de octeti (trei {@code int},
+ * doi {@code long} si un {@code byte}), fara {@link LocalDateTime} si fara obiecte legate.
  * </p>
  *
  * @author
  */
-public class Tranzactie {
+public final class Tranzactie {
 
     /** Identificatorul unic al tranzactiei. */
-    private int id;
+    private final int id;
 
-    /** Contul din care se efectueaza tranzactia. */
-    private ContBancar sursa;
+    /** Id-ul contului din care se efectueaza tranzactia. */
+    private final int idSursa;
 
-    /** Contul in care se efectueaza tranzactia. */
-    private ContBancar destinatie;
+    /** Id-ul contului in care se efectueaza tranzactia. */
+    private final int idDestinatie;
 
-    /** Suma transferata. */
-    private double suma;
+    /** Suma transferata, in subunitati ale valutei contului sursa. */
+    private final long suma;
 
-    /** Data si ora efectuarii tranzactiei. */
-    private LocalDateTime data;
+    /** Momentul efectuarii tranzactiei, in milisecunde epoch. */
+    private final long moment;
+
+    /** Ordinalul {@link Valuta} in care este exprimata suma. */
+    private final byte valuta;
 
 
     /**
-     * Creeaza o noua tranzactie intre doua conturi.
+     * Creeaza o tranzactie.
      *
-     * @param id          identificatorul unic al tranzactiei
-     * @param sursa       contul sursa
-     * @param destinatie  contul destinatie
-     * @param suma        suma transferata
-
+     * @param id           identificatorul unic al tranzactiei
+     * @param idSursa      id-ul contului sursa
+     * @param idDestinatie id-ul contului destinatie
+     * @param suma         suma transferata, in subunitati
+     * @param valuta       valuta sumei (a contului sursa)
+     * @param moment       momentul tranzactiei, in milisecunde epoch
      */
-    public Tranzactie(int id, ContBancar sursa, ContBancar destinatie, double suma) {
+    public Tranzactie(int id, int idSursa, int idDestinatie, long suma, Valuta valuta, long moment) {
         this.id = id;
-        this.sursa = sursa;
-        this.destinatie = destinatie;
+        this.idSursa = idSursa;
+        this.idDestinatie = idDestinatie;
         this.suma = suma;
-
-        this.data = LocalDateTime.now();
+        this.valuta = (byte) valuta.ordinal();
+        this.moment = moment;
     }
 
     /**
-     * Returneaza identificatorul unic al tranzactiei.
+     * Creeaza o tranzactie efectuata acum.
      *
-     * @return id-ul tranzactiei
+     * @param id           identificatorul unic al tranzactiei
+     * @param idSursa      id-ul contului sursa
+     * @param idDestinatie id-ul contului destinatie
+     * @param suma         suma transferata, in subunitati
+     * @param valuta       valuta sumei (a contului sursa)
      */
-    public int getId() {
-        return id;
+    public Tranzactie(int id, int idSursa, int idDestinatie, long suma, Valuta valuta) {
+        this(id, idSursa, idDestinatie, suma, valuta, System.currentTimeMillis());
     }
 
-
     /**
-     * Returneaza contul sursa al tranzactiei.
+     * Creeaza o tranzactie efectuata acum intre doua conturi.
      *
-     * @return contul sursa
+     * @param id          identificatorul unic al tranzactiei
+     * @param sursa       contul sursa
+     * @param destinatie  contul destinatie
+     * @param suma        suma transferata, in subunitati ale valutei contului sursa
      */
-    public ContBancar getSursa() {
-        return sursa;
+    public Tranzactie(int id, ContBancar sursa, ContBancar destinatie, long suma) {
+        this(id, sursa.getId(), destinatie.getId(), suma, sursa.getValuta());
     }
 
     /**
-     * Seteaza contul sursa al tranzactiei.
+     * Returneaza identificatorul unic al tranzactiei.
      *
-     * @param sursa contul sursa
+     * @return id-ul tranzactiei
      */
-    public void setSursa(ContBancar sursa) {
-        this.sursa = sursa;
+    public int getId() {
+        return id;
     }
 
     /**
-     * Returneaza contul destinatie al tranzactiei.
+     * Returneaza id-ul contului sursa. Contul poate sa fi fost inchis intre timp.
      *
-     * @return contul destinatie
+     * @return id-ul contului sursa
      */
-    public ContBancar getDestinatie() {
-        return destinatie;
+    public int getIdSursa() {
+        return idSursa;
     }
 
     /**
-     * Seteaza contul destinatie al tranzactiei.
+     * Returneaza id-ul contului destinatie. Contul poate sa fi fost inchis intre timp.
      *
-     * @param destinatie contul destinatie
+     * @return id-ul contului destinatie
      */
-    public void setDestinatie(ContBancar destinatie) {
-        this.destinatie = destinatie;
+    public int getIdDestinatie() {
+        return idDestinatie;
     }
 
     /**
      * Returneaza suma tranzactionata.
      *
-     * @return suma transferata
+     * @return suma transferata, in subunitati
      */
-    public double getSuma() {
+    public long getSuma() {
         return suma;
     }
 
     /**
-     * Seteaza suma tranzactionata.
+     * Returneaza valuta in care este exprimata suma.
      *
-     * @param suma suma transferata
+     * @return valuta sumei
      */
-    public void setSuma(double suma) {
-        this.suma = suma;
+    public Valuta getValuta() {
+        return Valuta.dupaOrdinal(valuta);
+    }
+
+    /**
+     * Returneaza momentul tranzactiei.
+     *
+     * @return milisecunde epoch
+     */
+    public long getMoment() {
+        return moment;
     }
 
     /**
-     * Returneaza data si ora la care a fost efectuata tranzactia.
+     * Returneaza data si ora la care a fost efectuata tranzactia, in fusul orar local.
      *
      * @return data tranzactiei
      */
     public LocalDateTime getData() {
-        return data;
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(moment), ZoneId.systemDefault());
     }
 
     /**
-     * Seteaza data tranzactiei pe baza unui sir de caractere formatat.
+     * Transforma o data locala in momentul folosit de tranzactii. La schimbarea orei o data
+     * locala poate fi ambigua, de aceea jurnalul salveaza momentele in UTC.
      *
-     * @param dataStr data in format "yyyy-MM-dd HH:mm:ss"
+     * @param data data si ora, in fusul orar local
+     * @return milisecunde epoch
      */
-    public void setData(String dataStr) {
-        this.data = LocalDateTime.parse(dataStr, DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
+    public static long momentDin(LocalDateTime data) {
+        return data.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
     }
 
 
-
-
     /**
      * Returneaza o reprezentare textuala a tranzactiei.
-     * Format: "[data] tip | sursa → destinatie : suma valuta"
+     * Format: "[data] sursa → destinatie : suma valuta"
      *
      * @return un sir care descrie tranzactia
      */
     @Override
     public String toString() {
-        return "[" + data + "] " + sursa.getClient().getNume() +
-                " → " + destinatie.getClient().getNume() + " : " + suma + " " + sursa.getValuta();
+        return "[" + getData() + "] " + idSursa + " → " + idDestinatie + " : "
+                + Bani.formateaza(suma) + " " + getValuta();
     }
 }
-
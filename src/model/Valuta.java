@@ -0,0 +1,46 @@
+package model;
+
+/**
+ * Enumerarea {@code Valuta} descrie valutele in care pot fi tinute conturile.
+ * <p>
+ * Ordinalul fiecarei valute este stabil: indexeaza matricea de cursuri din
+ * {@link service.CursValutarService} si este scris ca atare in fisierul binar de conturi.
+ * Valutele noi se adauga doar la sfarsit, fara a le reordona pe cele existente.
+ * </p>
+ */
+public enum Valuta {
+    RON, EUR, USD, GBP;
+
+    private static final Valuta[] VALORI = values();
+
+    /**
+     * Returneaza valuta cu codul dat, fara a tine cont de majuscule si spatii.
+     *
+     * @param cod codul valutei (de exemplu "EUR")
+     * @return valuta corespunzatoare
+     * @throws IllegalArgumentException daca valuta nu este cunoscuta
+     */
+    public static Valuta din(String cod) {
+        if (cod != null) {
+            String c = cod.trim();
+            for (Valuta v : VALORI) {
+                if (v.name().equalsIgnoreCase(c)) return v;
+            }
+        }
+        throw new IllegalArgumentException("Valuta necunoscuta: " + cod);
+    }
+
+    /**
+     * Returneaza valuta cu ordinalul dat.
+     *
+     * @param ordinal ordinalul valutei
+     * @return valuta corespunzatoare
+     * @throws IllegalArgumentException daca ordinalul nu corespunde niciunei valute
+     */
+    public static Valuta dupaOrdinal(int ordinal) {
+        if (ordinal < 0 || ordinal >= VALORI.length) {
+            throw new IllegalArgumentException("Ordinal de valuta necunoscut: " + ordinal);
+        }
+        return VALORI[ordinal];
+    }
+}
@@ -0,0 +1,156 @@
+package service;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntSupplier;
+
+/**
+ * Clasa {@code AlocatorId} genereaza id-uri unice pentru clienti, conturi si tranzactii.
+ * <p>
+ * Fiecare secventa este un contor atomic: alocarea unui id este un singur compare-and-set,
+ * fara blocari, si este sigura din oricate fire. Id-urile se rezerva pe disc in blocuri:
+ * in fisierul {@code data/secvente.txt} se salveaza limita blocului curent, iar fisierul este
+ * scris doar cand un bloc se epuizeaza. La repornire, alocarea continua de la limita salvata,
+ * fara a parcurge toate inregistrarile pentru a afla id-ul maxim. Id-urile ramase nefolosite
+ * dintr-un bloc la oprirea aplicatiei sunt sarite, dar nu se repeta niciodata.
+ * </p>
+ */
+public class AlocatorId {
+
+    /** Secventele de id-uri gestionate. */
+    public enum Secventa { CLIENT, CONT, TRANZACTIE }
+
+    private static final String PATH = "data/secvente.txt";
+
+    /** Numarul implicit de id-uri rezervate la o singura scriere pe disc. */
+    public static final int DIMENSIUNE_BLOC_IMPLICITA = 1000;
+
+    private static final class Contor {
+        final AtomicInteger urmator;
+        /** Primul id care nu mai este rezervat pe disc. */
+        volatile int limita;
+
+        Contor(int urmator, int limita) {
+            this.urmator = new AtomicInteger(urmator);
+            this.limita = limita;
+        }
+    }
+
+    private final EnumMap<Secventa, Contor> contoare = new EnumMap<>(Secventa.class);
+    private final Path fisier;
+    private final int dimensiuneBloc;
+
+    private AlocatorId(Path fisier, int dimensiuneBloc) {
+        this.fisier = fisier;
+        this.dimensiuneBloc = dimensiuneBloc;
+    }
+
+    /**
+     * Deschide alocatorul folosind fisierul implicit {@code data/secvente.txt}.
+     *
+     * @param valoriInitiale pentru fiecare secventa, primul id liber calculat din datele existente;
+     *                       se apeleaza doar daca secventa nu este inca salvata pe disc
+     * @return alocatorul
+     */
+    public static AlocatorId deschide(Map<Secventa, IntSupplier> valoriInitiale) {
+        return deschide(Paths.get(PATH), DIMENSIUNE_BLOC_IMPLICITA, valoriInitiale);
+    }
+
+    /**
+     * Deschide alocatorul dintr-un fisier de secvente.
+     *
+     * @param fisier fisierul in care se salveaza limitele blocurilor
+     * @param dimensiuneBloc numarul de id-uri rezervate la o scriere
+     * @param valoriInitiale primul id liber pentru secventele care nu exista in fisier
+     * @return alocatorul
+     */
+    public static AlocatorId deschide(Path fisier, int dimensiuneBloc, Map<Secventa, IntSupplier> valoriInitiale) {
+        AlocatorId alocator = new AlocatorId(fisier, dimensiuneBloc);
+        EnumMap<Secventa, Integer> salvate = citeste(fisier);
+
+        for (Secventa s : Secventa.values()) {
+            Integer limita = salvate.get(s);
+            int start;
+            if (limita != null) {
+                start = limita;
+            } else {
+                IntSupplier initial = valoriInitiale.get(s);
+                start = initial == null ? 1 : initial.getAsInt();
+            }
+            // limita == urmator: primul id alocat rezerva un bloc nou
+            alocator.contoare.put(s, new Contor(start, start));
+        }
+        return alocator;
+    }
+
+    /**
+     * Aloca urmatorul id dintr-o secventa.
+     *
+     * @param s secventa
+     * @return un id nefolosit pana acum
+     */
+    public int urmator(Secventa s) {
+        Contor c = contoare.get(s);
+        while (true) {
+            int id = c.urmator.get();
+            if (id < c.limita) {
+                if (c.urmator.compareAndSet(id, id + 1)) return id;
+            } else {
+                rezervaBloc(c, id);
+            }
+        }
+    }
+
+    /**
+     * Rezerva pe disc un bloc nou care incepe cel tarziu de la {@code id}.
+     * Doar firul care epuizeaza blocul ajunge aici; celelalte asteapta rezervarea.
+     */
+    private synchronized void rezervaBloc(Contor c, int id) {
+        if (id < c.limita) return;
+        int limitaNoua = id + dimensiuneBloc;
+        salveaza(c, limitaNoua);
+        c.limita = limitaNoua;
+    }
+
+    private void salveaza(Contor modificat, int limitaNoua) {
+        File temporar = new File(fisier + ".tmp");
+        try (PrintWriter pw = new PrintWriter(new FileWriter(temporar))) {
+            for (Map.Entry<Secventa, Contor> e : contoare.entrySet()) {
+                int limita = e.getValue() == modificat ? limitaNoua : e.getValue().limita;
+                pw.println(e.getKey().name() + "=" + limita);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Eroare la salvarea secventelor de id-uri", e);
+        }
+
+        try {
+            Files.move(temporar.toPath(), fisier,
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Eroare la salvarea secventelor de id-uri", e);
+        }
+    }
+
+    private static EnumMap<Secventa, Integer> citeste(Path fisier) {
+        EnumMap<Secventa, Integer> limite = new EnumMap<>(Secventa.class);
+        if (!Files.exists(fisier)) return limite;
+
+        try (BufferedReader br = Files.newBufferedReader(fisier)) {
+            String linie;
+            while ((linie = br.readLine()) != null) {
+                String[] parts = linie.split("=");
+                if (parts.length != 2) continue;
+                limite.put(Secventa.valueOf(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            System.out.println("Eroare la citirea secventelor de id-uri: " + e.getMessage());
+        }
+        return limite;
+    }
+}
@@ -0,0 +1,632 @@
+package service;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.*;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Clasa {@code ArhivaAudit} gestioneaza segmentele jurnalului de audit din {@code data/audit}.
+ * <p>
+ * Jurnalul este impartit in segmente {@code audit-<zi>-<nr>.log}: un segment contine
+ * evenimentele unei singure zile si se inchide la schimbarea zilei sau cand depaseste
+ * dimensiunea maxima. Segmentele inchise sunt comprimate in fundal in
+ * {@code audit-<zi>-<nr>.log.gz}, ca o succesiune de membri gzip independenti, cate unul
+ * pentru fiecare bloc de aproximativ {@value #DIMENSIUNE_BLOC} octeti din textul original.
+ * Fisierul {@code .idx} alaturat retine, pentru fiecare bloc, momentul primei linii si
+ * pozitiile blocului in fisierul comprimat si in textul original.
+ * </p>
+ * <p>
+ * O cautare pe un interval de timp deschide doar segmentele zilelor din interval si, in
+ * fiecare segment comprimat, decomprima doar blocurile care acopera intervalul.
+ * </p>
+ */
+public class ArhivaAudit {
+
+    /** Directorul implicit al segmentelor de audit. */
+    public static final Path DIRECTOR_IMPLICIT = Paths.get("data/audit");
+
+    /** Dimensiunea aproximativa a unui bloc comprimat independent. */
+    public static final int DIMENSIUNE_BLOC = 64 * 1024;
+
+    /** Formatul momentului cu care incepe fiecare linie din jurnal. */
+    public static final DateTimeFormatter FORMAT_TIMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS");
+
+    private static final int LUNGIME_TIMP = 23;
+    private static final Pattern NUME_SEGMENT =
+            Pattern.compile("audit-(\\d{4}-\\d{2}-\\d{2})-(\\d+)\\.log(\\.gz)?");
+
+    private final Path director;
+    private final ZoneId zona = ZoneId.systemDefault();
+    private final ExecutorService compresor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "audit-compresie");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /**
+     * @param director directorul segmentelor
+     */
+    public ArhivaAudit(Path director) {
+        this.director = director;
+    }
+
+    /**
+     * Creeaza calea unui segment nou pentru o zi, cu numarul urmator celor existente.
+     *
+     * @param zi ziua evenimentelor din segment
+     * @return segmentul (fisierul nu este creat)
+     */
+    Segment segmentNou(LocalDate zi) throws IOException {
+        Files.createDirectories(director);
+        int urmator = 1;
+        for (Segment s : segmente()) {
+            if (s.zi.equals(zi)) urmator = Math.max(urmator, s.numar + 1);
+        }
+        return new Segment(director, zi, urmator, false);
+    }
+
+    /** Programeaza comprimarea unui segment inchis. */
+    void comprimaInFundal(Path segment) {
+        compresor.execute(() -> {
+            try {
+                comprima(segment);
+            } catch (IOException e) {
+                System.out.println("Eroare la comprimarea segmentului de audit " + segment + ": " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Programeaza comprimarea segmentelor ramase necomprimate de la rularile anterioare.
+     *
+     * @param segmente segmentele existente, listate inainte de deschiderea unui segment nou
+     */
+    void comprimaSegmenteInchise(List<Segment> segmente) {
+        for (Segment s : segmente) {
+            if (!s.comprimat) comprimaInFundal(s.text());
+        }
+    }
+
+    /** Asteapta comprimarile programate si opreste firul de comprimare. */
+    void inchide() {
+        compresor.shutdown();
+        try {
+            compresor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Comprima un segment in blocuri gzip independente si scrie indexul blocurilor si
+     * antetele evenimentelor ({@code .inv}), folosite la reconstruirea {@link IndexAudit}.
+     * Fisierele noi sunt scrise mai intai temporar si mutate atomic; textul original
+     * este sters doar dupa ce toate fisierele sunt complete.
+     */
+    static void comprima(Path segment) throws IOException {
+        Path gz = segment.resolveSibling(segment.getFileName() + ".gz");
+        Path idx = indexPentru(gz);
+        Path inv = antetePentru(gz);
+        Path gzTemporar = gz.resolveSibling(gz.getFileName() + ".tmp");
+        Path idxTemporar = idx.resolveSibling(idx.getFileName() + ".tmp");
+        Path invTemporar = inv.resolveSibling(inv.getFileName() + ".tmp");
+
+        try (InputStream in = Files.newInputStream(segment);
+             FileOutputStream fos = new FileOutputStream(gzTemporar.toFile());
+             DataOutputStream index = new DataOutputStream(
+                     new BufferedOutputStream(Files.newOutputStream(idxTemporar)));
+             DataOutputStream antete = new DataOutputStream(
+                     new BufferedOutputStream(Files.newOutputStream(invTemporar)))) {
+
+            ZoneId zona = ZoneId.systemDefault();
+            byte[] bloc = new byte[DIMENSIUNE_BLOC + 4096];
+            int n = 0;
+            int inceputLinie = 0;
+            long pozitieText = 0;
+            long ultimulTimp = Long.MIN_VALUE;
+            long timpBloc = Long.MIN_VALUE;
+
+            // Textul se citeste direct in bloc, in bucati cat mai mari; octetii de dupa ultima
+            // linie completa raman la inceputul blocului urmator
+            int cautat = 0;
+            int citite;
+            while ((citite = in.read(bloc, n, bloc.length - n)) != -1) {
+                n += citite;
+                while (cautat < n) {
+                    if (bloc[cautat++] != '\n') continue;
+
+                    // Liniile fara moment (continuarea unui mesaj) il preiau pe cel anterior
+                    InregistrareAudit r = InregistrareAudit.parseaza(
+                            new String(bloc, inceputLinie, cautat - inceputLinie - 1, StandardCharsets.UTF_8));
+                    if (r != null) {
+                        ultimulTimp = r.getTimp().atZone(zona).toInstant().toEpochMilli();
+                        if (r.getTip() != null) scrieAntet(antete, pozitieText + inceputLinie, r);
+                    }
+                    if (inceputLinie == 0) timpBloc = ultimulTimp;
+                    inceputLinie = cautat;
+
+                    if (cautat >= DIMENSIUNE_BLOC) {
+                        scrieBloc(bloc, cautat, timpBloc, pozitieText, fos, index);
+                        pozitieText += cautat;
+                        n -= cautat;
+                        System.arraycopy(bloc, cautat, bloc, 0, n);
+                        cautat = 0;
+                        inceputLinie = 0;
+                    }
+                }
+                if (n == bloc.length) bloc = Arrays.copyOf(bloc, n * 2);
+            }
+            if (n > 0) {
+                // Ultima linie, fara terminator
+                InregistrareAudit r = InregistrareAudit.parseaza(
+                        new String(bloc, inceputLinie, n - inceputLinie, StandardCharsets.UTF_8));
+                if (r != null) {
+                    ultimulTimp = r.getTimp().atZone(zona).toInstant().toEpochMilli();
+                    if (r.getTip() != null) scrieAntet(antete, pozitieText + inceputLinie, r);
+                }
+                if (inceputLinie == 0) timpBloc = ultimulTimp;
+                scrieBloc(bloc, n, timpBloc, pozitieText, fos, index);
+            }
+            fos.getFD().sync();
+        }
+
+        Files.move(invTemporar, inv, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        Files.move(idxTemporar, idx, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        Files.move(gzTemporar, gz, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        Files.delete(segment);
+    }
+
+    private static void scrieAntet(DataOutputStream antete, long offset, InregistrareAudit r) throws IOException {
+        antete.writeLong(offset);
+        antete.writeUTF(r.getTip().name());
+        antete.writeInt(r.getCont());
+        antete.writeInt(r.getContDestinatie());
+        antete.writeUTF(r.getEmail() == null ? "" : r.getEmail());
+    }
+
+    /**
+     * Adauga in index antetele evenimentelor unui segment. Pentru segmentele comprimate se
+     * citeste fisierul {@code .inv}; altfel (sau daca acesta lipseste) se parcurge textul.
+     */
+    void incarcaAntete(Segment s, IndexAudit index) throws IOException {
+        if (Files.exists(s.antete()) && Files.exists(s.comprimat())) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(s.antete())))) {
+                while (true) {
+                    long offset;
+                    try {
+                        offset = in.readLong();
+                    } catch (EOFException e) {
+                        break;
+                    }
+                    TipEveniment tip = tipDupaNume(in.readUTF());
+                    int cont = in.readInt();
+                    int destinatie = in.readInt();
+                    String email = in.readUTF();
+                    index.adauga(s.pozitie(offset), tip, email.isEmpty() ? null : email, cont, destinatie);
+                }
+            }
+            return;
+        }
+
+        InputStream in;
+        try {
+            in = Files.newInputStream(s.text());
+        } catch (NoSuchFileException e) {
+            // Segmentul a fost comprimat intre timp
+            if (Files.exists(s.antete())) {
+                incarcaAntete(s, index);
+                return;
+            }
+            in = new GZIPInputStream(Files.newInputStream(s.comprimat()), 8192);
+        }
+        try (InputStream flux = new BufferedInputStream(in)) {
+            byte[] linie = new byte[1024];
+            int n = 0;
+            long offset = 0;
+            long inceputLinie = 0;
+            int b;
+            while (true) {
+                b = flux.read();
+                if (b == -1 || b == '\n') {
+                    InregistrareAudit r = InregistrareAudit.parseaza(new String(linie, 0, n, StandardCharsets.UTF_8));
+                    if (r != null && r.getTip() != null) {
+                        index.adauga(s.pozitie(inceputLinie), r.getTip(), r.getEmail(), r.getCont(), r.getContDestinatie());
+                    }
+                    if (b == -1) break;
+                    offset++;
+                    inceputLinie = offset;
+                    n = 0;
+                    continue;
+                }
+                if (n == linie.length) linie = Arrays.copyOf(linie, n * 2);
+                linie[n++] = (byte) b;
+                offset++;
+            }
+        }
+    }
+
+    private static TipEveniment tipDupaNume(String nume) {
+        try {
+            return TipEveniment.valueOf(nume);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static void scrieBloc(byte[] bloc, int lungime, long timp, long pozitieText,
+                                  FileOutputStream fos, DataOutputStream index) throws IOException {
+        index.writeLong(timp);
+        index.writeLong(fos.getChannel().position());
+        index.writeLong(pozitieText);
+        // Fiecare bloc este un membru gzip complet, care poate fi decomprimat separat
+        try (GZIPOutputStream gz = new GZIPOutputStream(new FilterOutputStream(fos) {
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                out.write(b, off, len);
+            }
+
+            @Override
+            public void close() throws IOException {
+                flush();
+            }
+        }, 8192)) {
+            gz.write(bloc, 0, lungime);
+        }
+    }
+
+    /**
+     * Citeste liniile jurnalului dintre doua momente. Sunt deschise doar segmentele zilelor
+     * din interval; in segmentele comprimate se decomprima doar blocurile din interval.
+     *
+     * @param deLa inceputul intervalului (inclusiv)
+     * @param panaLa sfarsitul intervalului (exclusiv)
+     * @param consumator primeste fiecare linie, in ordinea din jurnal
+     */
+    public void citeste(LocalDateTime deLa, LocalDateTime panaLa, Consumer<String> consumator) throws IOException {
+        long inceput = deLa.atZone(zona).toInstant().toEpochMilli();
+        long sfarsit = panaLa.atZone(zona).toInstant().toEpochMilli();
+        if (sfarsit <= inceput) return;
+        LocalDate primaZi = deLa.toLocalDate();
+        LocalDate ultimaZi = panaLa.minusNanos(1).toLocalDate();
+
+        for (Segment s : segmente()) {
+            if (s.zi.isBefore(primaZi) || s.zi.isAfter(ultimaZi)) continue;
+            citesteSegment(s, inceput, sfarsit, consumator);
+        }
+    }
+
+    /**
+     * Citeste toate liniile unei zile.
+     *
+     * @param zi ziua cautata
+     * @param consumator primeste fiecare linie, in ordinea din jurnal
+     */
+    public void citesteZi(LocalDate zi, Consumer<String> consumator) throws IOException {
+        citeste(zi.atStartOfDay(), zi.plusDays(1).atStartOfDay(), consumator);
+    }
+
+    private void citesteSegment(Segment s, long inceput, long sfarsit, Consumer<String> consumator) throws IOException {
+        Path gz = s.comprimat();
+        if (!s.comprimat) {
+            try {
+                try (BufferedReader br = Files.newBufferedReader(s.text(), StandardCharsets.UTF_8)) {
+                    filtreaza(br, inceput, sfarsit, consumator);
+                }
+                return;
+            } catch (NoSuchFileException e) {
+                // Segmentul a fost comprimat intre timp
+            }
+        }
+
+        long[] index = citesteIndex(indexPentru(gz));
+        int blocuri = index.length / 3;
+        if (blocuri == 0) return;
+
+        // Primul bloc citit este ultimul care incepe inaintea intervalului; citirea se opreste
+        // la primul bloc care incepe dupa interval
+        int primul = Math.max(0, primulBlocDupa(index, blocuri, inceput) - 1);
+        int dupaUltimul = Math.max(primul + 1, primulBlocDupa(index, blocuri, sfarsit));
+
+        try (FileChannel canal = FileChannel.open(gz, StandardOpenOption.READ)) {
+            long start = index[primul * 3 + 1];
+            long stop = dupaUltimul < blocuri ? index[dupaUltimul * 3 + 1] : canal.size();
+            canal.position(start);
+            InputStream comprimat = new FluxLimitat(Channels.newInputStream(canal), stop - start);
+            try (BufferedReader br = new BufferedReader(new InputStreamReader(
+                    new GZIPInputStream(comprimat, 8192), StandardCharsets.UTF_8))) {
+                filtreaza(br, inceput, sfarsit, consumator);
+            }
+        }
+    }
+
+    private void filtreaza(BufferedReader br, long inceput, long sfarsit, Consumer<String> consumator) throws IOException {
+        long ultimulTimp = Long.MIN_VALUE;
+        String linie;
+        while ((linie = br.readLine()) != null) {
+            long t = linie.length() >= LUNGIME_TIMP ? timpLinie(linie.substring(0, LUNGIME_TIMP), zona) : Long.MIN_VALUE;
+            // Liniile fara moment (continuarea unui mesaj pe mai multe linii) il preiau pe cel anterior
+            if (t != Long.MIN_VALUE) ultimulTimp = t;
+            if (ultimulTimp >= inceput && ultimulTimp < sfarsit) consumator.accept(linie);
+        }
+    }
+
+    /** Cautare binara: primul bloc al carui moment de inceput este cel putin {@code timp}. */
+    private static int primulBlocDupa(long[] index, int blocuri, long timp) {
+        int st = 0;
+        int dr = blocuri;
+        while (st < dr) {
+            int mij = (st + dr) >>> 1;
+            if (index[mij * 3] < timp) st = mij + 1;
+            else dr = mij;
+        }
+        return st;
+    }
+
+    private static long timpLinie(String text, ZoneId zona) {
+        try {
+            return LocalDateTime.parse(text, FORMAT_TIMP).atZone(zona).toInstant().toEpochMilli();
+        } catch (DateTimeParseException e) {
+            return Long.MIN_VALUE;
+        }
+    }
+
+    private static long[] citesteIndex(Path idx) throws IOException {
+        long dimensiune = Files.size(idx);
+        long[] valori = new long[(int) (dimensiune / Long.BYTES)];
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(idx)))) {
+            for (int i = 0; i < valori.length; i++) {
+                valori[i] = in.readLong();
+            }
+        }
+        return valori;
+    }
+
+    private static Path indexPentru(Path gz) {
+        String nume = gz.getFileName().toString();
+        return gz.resolveSibling(nume.substring(0, nume.length() - ".log.gz".length()) + ".idx");
+    }
+
+    private static Path antetePentru(Path gz) {
+        String nume = gz.getFileName().toString();
+        return gz.resolveSibling(nume.substring(0, nume.length() - ".log.gz".length()) + ".inv");
+    }
+
+    /** Segmentele existente, ordonate dupa zi si numar. */
+    List<Segment> segmente() {
+        List<Segment> rezultat = new ArrayList<>();
+        if (!Files.isDirectory(director)) return rezultat;
+        try (Stream<Path> fisiere = Files.list(director)) {
+            fisiere.forEach(p -> {
+                Matcher m = NUME_SEGMENT.matcher(p.getFileName().toString());
+                if (m.matches()) {
+                    boolean comprimat = m.group(3) != null;
+                    LocalDate zi = LocalDate.parse(m.group(1));
+                    int numar = Integer.parseInt(m.group(2));
+                    // Daca exista ambele variante, comprimarea nu s-a terminat: se foloseste textul
+                    if (comprimat && Files.exists(p.resolveSibling(
+                            p.getFileName().toString().substring(0, p.getFileName().toString().length() - 3)))) {
+                        return;
+                    }
+                    if (comprimat && !Files.exists(indexPentru(p))) return;
+                    rezultat.add(new Segment(director, zi, numar, comprimat));
+                }
+            });
+        } catch (IOException e) {
+            System.out.println("Eroare la listarea segmentelor de audit: " + e.getMessage());
+        }
+        rezultat.sort(Comparator.comparing((Segment s) -> s.zi).thenComparingInt(s -> s.numar));
+        return rezultat;
+    }
+
+    /** Un segment al jurnalului: ziua, numarul in acea zi si fisierele asociate. */
+    static final class Segment {
+        final Path director;
+        final LocalDate zi;
+        final int numar;
+        final boolean comprimat;
+
+        Segment(Path director, LocalDate zi, int numar, boolean comprimat) {
+            this.director = director;
+            this.zi = zi;
+            this.numar = numar;
+            this.comprimat = comprimat;
+        }
+
+        Path index() {
+            return director.resolve(String.format("audit-%s-%03d.idx", zi, numar));
+        }
+
+        Path text() {
+            return director.resolve(String.format("audit-%s-%03d.log", zi, numar));
+        }
+
+        Path comprimat() {
+            return director.resolve(String.format("audit-%s-%03d.log.gz", zi, numar));
+        }
+
+        Path antete() {
+            return director.resolve(String.format("audit-%s-%03d.inv", zi, numar));
+        }
+
+        /** @return pozitia in {@link IndexAudit} a liniei de la offsetul dat sau -1 */
+        long pozitie(long offset) {
+            return IndexAudit.pozitie(zi, numar, offset);
+        }
+    }
+
+    /**
+     * Citeste linii individuale dupa pozitia lor din {@link IndexAudit}. Pastreaza deschis
+     * segmentul curent si ultimul bloc decomprimat, deci pozitiile consecutive din acelasi
+     * bloc costa o singura decomprimare. Nu este sincronizat.
+     */
+    final class CititorLinii implements Closeable {
+        private LocalDate zi;
+        private int numar = -1;
+        private FileChannel canal;
+        private boolean comprimat;
+        private long[] index;
+        private int blocCurent = -1;
+        private byte[] bloc;
+        private int lungimeBloc;
+        private final ByteBuffer tampon = ByteBuffer.allocate(512);
+        private byte[] linie = new byte[512];
+
+        /**
+         * @return linia de la pozitia data sau {@code null} daca nu mai exista
+         */
+        String citeste(long pozitie) throws IOException {
+            LocalDate z = IndexAudit.zi(pozitie);
+            int nr = IndexAudit.numar(pozitie);
+            long offset = IndexAudit.offset(pozitie);
+            if (!z.equals(zi) || nr != numar) deschide(z, nr);
+            if (canal == null) return null;
+            return comprimat ? citesteComprimat(offset) : citesteText(offset);
+        }
+
+        private void deschide(LocalDate z, int nr) throws IOException {
+            close();
+            zi = z;
+            numar = nr;
+            Segment s = new Segment(director, z, nr, false);
+            try {
+                canal = FileChannel.open(s.text(), StandardOpenOption.READ);
+                comprimat = false;
+                return;
+            } catch (NoSuchFileException e) {
+                // Segmentul este comprimat
+            }
+            try {
+                index = citesteIndex(s.index());
+                canal = FileChannel.open(s.comprimat(), StandardOpenOption.READ);
+                comprimat = true;
+            } catch (NoSuchFileException e) {
+                canal = null;
+            }
+        }
+
+        private String citesteText(long offset) throws IOException {
+            int n = 0;
+            long pozitie = offset;
+            while (true) {
+                tampon.clear();
+                int citite = canal.read(tampon, pozitie);
+                if (citite <= 0) break;
+                for (int i = 0; i < citite; i++) {
+                    byte b = tampon.get(i);
+                    if (b == '\n') return new String(linie, 0, n, StandardCharsets.UTF_8);
+                    if (n == linie.length) linie = Arrays.copyOf(linie, n * 2);
+                    linie[n++] = b;
+                }
+                pozitie += citite;
+            }
+            return n == 0 ? null : new String(linie, 0, n, StandardCharsets.UTF_8);
+        }
+
+        private String citesteComprimat(long offset) throws IOException {
+            int blocuri = index.length / 3;
+            // Ultimul bloc care incepe cel tarziu la offset
+            int st = 0;
+            int dr = blocuri - 1;
+            int gasit = -1;
+            while (st <= dr) {
+                int mij = (st + dr) >>> 1;
+                if (index[mij * 3 + 2] <= offset) {
+                    gasit = mij;
+                    st = mij + 1;
+                } else {
+                    dr = mij - 1;
+                }
+            }
+            if (gasit < 0) return null;
+            if (gasit != blocCurent) decomprimaBloc(gasit, blocuri);
+
+            int start = (int) (offset - index[gasit * 3 + 2]);
+            if (start >= lungimeBloc) return null;
+            int sfarsit = start;
+            while (sfarsit < lungimeBloc && bloc[sfarsit] != '\n') sfarsit++;
+            return new String(bloc, start, sfarsit - start, StandardCharsets.UTF_8);
+        }
+
+        private void decomprimaBloc(int i, int blocuri) throws IOException {
+            long start = index[i * 3 + 1];
+            long stop = i + 1 < blocuri ? index[(i + 1) * 3 + 1] : canal.size();
+            canal.position(start);
+            if (bloc == null) bloc = new byte[DIMENSIUNE_BLOC * 2];
+            lungimeBloc = 0;
+            try (InputStream in = new GZIPInputStream(
+                    new FluxLimitat(Channels.newInputStream(canal), stop - start) {
+                        @Override
+                        public void close() {
+                            // Canalul ramane deschis pentru blocurile urmatoare
+                        }
+                    }, 8192)) {
+                int n;
+                while ((n = in.read(bloc, lungimeBloc, bloc.length - lungimeBloc)) > 0) {
+                    lungimeBloc += n;
+                    if (lungimeBloc == bloc.length) bloc = Arrays.copyOf(bloc, bloc.length * 2);
+                }
+            }
+            blocCurent = i;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (canal != null) canal.close();
+            canal = null;
+            index = null;
+            blocCurent = -1;
+            zi = null;
+            numar = -1;
+        }
+    }
+
+    /** Flux care se opreste dupa un numar dat de octeti. */
+    private static class FluxLimitat extends FilterInputStream {
+        private long ramasi;
+
+        FluxLimitat(InputStream in, long limita) {
+            super(in);
+            this.ramasi = limita;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (ramasi <= 0) return -1;
+            int b = super.read();
+            if (b >= 0) ramasi--;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (ramasi <= 0) return -1;
+            int n = super.read(b, off, (int) Math.min(len, ramasi));
+            if (n > 0) ramasi -= n;
+            return n;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return (int) Math.min(super.available(), ramasi);
+        }
+    }
+}
@@ -1,40 +1,557 @@
 package service;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * Clasa {@code AuditService} gestioneaza logarea actiunilor aplicatiei intr-un fisier text.
  * <p>
  * Toate evenimentele importante sunt inregistrate impreuna cu data si ora la care au avut loc.
  * </p>
+ * <p>
+ * Logarea este asincrona. Apelantii doar publica evenimentul intr-un buffer circular marginit,
+ * fara blocari ({@link InelAudit}), si nu ating niciodata fisierul. Un singur fir de scriere
+ * tine segmentul curent al jurnalului deschis, formateaza evenimentele si le scrie in loturi,
+ * cu un singur flush pe lot. Momentul evenimentului este retinut la publicare, nu la scriere.
+ * </p>
+ * <p>
+ * Jurnalul este scris in segmente zilnice din {@code data/audit}, cu momentul complet
+ * ({@code yyyy-MM-dd HH:mm:ss.SSS}) pe fiecare linie. Un segment se inchide la schimbarea
+ * zilei sau dupa {@code banca.audit.dimensiuneSegment} octeti, iar segmentele inchise sunt
+ * comprimate si indexate in fundal de {@link ArhivaAudit}.
+ * </p>
+ * <p>
+ * Fiecare linie scrisa este adaugata si in {@link IndexAudit}, dupa email, cont si tip;
+ * {@link #interogare()} foloseste acest index pentru a citi doar liniile cautate.
+ * </p>
+ * <p>
+ * <b>Buffer plin:</b> operatiile bancare nu asteapta niciodata dupa log. Daca firul de scriere
+ * ramane in urma si bufferul se umple, evenimentul nou este abandonat si numarat; la urmatorul
+ * lot, firul de scriere adauga in log o linie cu numarul de evenimente pierdute.
+ * Capacitatea se poate configura cu proprietatea de sistem {@code banca.audit.capacitate}.
+ * </p>
+ * <p>
+ * Evenimentele au un tip ({@link TipEveniment}) si argumente separate; textul este construit
+ * abia de firul de scriere. Fiecare categorie are un nivel de detaliu, iar evenimentele mai
+ * detaliate decat nivelul categoriei sunt abandonate imediat, inainte de orice alocare.
+ * </p>
  *
  * @author
  */
 public class AuditService {
 
-    /** Calea catre fisierul in care se salveaza logurile. */
-    private static final String LOG_FILE = "data/log.txt";
+    /** Segmentele jurnalului de audit, din {@code data/audit}. */
+    private static final ArhivaAudit ARHIVA = new ArhivaAudit(ArhivaAudit.DIRECTOR_IMPLICIT);
+
+    /** Dimensiunea dupa care segmentul curent este inchis si se deschide unul nou. */
+    public static final long DIMENSIUNE_SEGMENT_IMPLICITA =
+            Long.getLong("banca.audit.dimensiuneSegment", 64L * 1024 * 1024);
+
+    /** Numarul implicit de evenimente care pot astepta scrierea. */
+    public static final int CAPACITATE_IMPLICITA = Integer.getInteger("banca.audit.capacitate", 8192);
+
+    /** Numarul maxim de evenimente scrise inainte de un flush. */
+    private static final int DIMENSIUNE_LOT = 256;
+
+    private static final DateTimeFormatter FORMAT_ORA = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:");
+
+
+    /** Indexul jurnalului dupa email, cont si tip de eveniment. */
+    private static final IndexAudit INDEX = new IndexAudit();
+
+    private static final InelAudit<EvenimentAudit> INEL = new InelAudit<>(CAPACITATE_IMPLICITA, EvenimentAudit::new);
+    private static final LongAdder PIERDUTE = new LongAdder();
+    private static final Thread SCRIITOR = new Thread(AuditService::scrie, "audit-scriitor");
+
+    /** Nivelul configurat pentru fiecare categorie, indexat dupa ordinal. */
+    private static volatile TipEveniment.Nivel[] niveluri = niveluriInitiale();
+    private static volatile boolean oprit;
+
+    /**
+     * {@code true} cat timp firul de scriere este (sau urmeaza sa fie) oprit in asteptarea
+     * evenimentelor; doar atunci producatorii il trezesc.
+     */
+    private static volatile boolean scriitorAsteapta;
+
+    static {
+        SCRIITOR.setDaemon(true);
+        SCRIITOR.start();
+    }
+
+    /**
+     * Citeste nivelurile din proprietatile de sistem: {@code banca.audit.nivel} pentru toate
+     * categoriile si {@code banca.audit.nivel.<CATEGORIE>} pentru o singura categorie.
+     * Implicit se scriu evenimentele de nivel {@code INFO} si {@code EROARE}.
+     */
+    private static TipEveniment.Nivel[] niveluriInitiale() {
+        TipEveniment.Categorie[] categorii = TipEveniment.Categorie.values();
+        TipEveniment.Nivel[] rezultat = new TipEveniment.Nivel[categorii.length];
+        String implicit = System.getProperty("banca.audit.nivel", TipEveniment.Nivel.INFO.name());
+        for (TipEveniment.Categorie c : categorii) {
+            String valoare = System.getProperty("banca.audit.nivel." + c.name(), implicit);
+            try {
+                rezultat[c.ordinal()] = TipEveniment.Nivel.valueOf(valoare.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                System.out.println("Nivel de audit invalid pentru " + c + ": " + valoare);
+                rezultat[c.ordinal()] = TipEveniment.Nivel.INFO;
+            }
+        }
+        return rezultat;
+    }
+
+    /**
+     * Schimba nivelul de detaliu al unei categorii. Evenimentele mai detaliate decat nivelul
+     * sunt abandonate la apel, inainte de a ocupa bufferul.
+     *
+     * @param categorie categoria de evenimente
+     * @param nivel cel mai detaliat nivel care se mai scrie
+     */
+    public static synchronized void seteazaNivel(TipEveniment.Categorie categorie, TipEveniment.Nivel nivel) {
+        TipEveniment.Nivel[] copie = niveluri.clone();
+        copie[categorie.ordinal()] = nivel;
+        niveluri = copie;
+    }
+
+    /**
+     * @return {@code true} daca evenimentele de acest tip sunt scrise cu nivelurile curente
+     */
+    public static boolean esteActiv(TipEveniment tip) {
+        return tip.getNivel().compareTo(niveluri[tip.getCategorie().ordinal()]) <= 0;
+    }
 
     /**
      * Inregistreaza o actiune in fisierul de log.
      * <p>
      * Fiecare inregistrare contine data, ora si descrierea actiunii efectuate.
+     * Metoda nu asteapta scrierea pe disc; daca bufferul este plin, actiunea este abandonata.
      * </p>
      *
      * @param actiune descrierea actiunii care trebuie logata
      */
     public static void log(String actiune) {
-        try (FileWriter fw = new FileWriter(LOG_FILE, true);
-             BufferedWriter bw = new BufferedWriter(fw);
-             PrintWriter out = new PrintWriter(bw)) {
+        log(TipEveniment.MESAJ, actiune);
+    }
+
+    /**
+     * Inregistreaza un eveniment al carui text este calculat abia pe firul de scriere.
+     * Furnizorul nu este apelat deloc daca nivelul categoriei exclude evenimentul.
+     *
+     * @param tip tipul evenimentului (categorie si nivel)
+     * @param mesaj calculeaza textul evenimentului
+     */
+    public static void log(TipEveniment tip, Supplier<? extends CharSequence> mesaj) {
+        long pozitie = revendica(tip);
+        if (pozitie < 0) return;
+        EvenimentAudit e = INEL.slot(pozitie);
+        e.timp = System.currentTimeMillis();
+        e.tip = tip;
+        e.mesaj = mesaj;
+        INEL.publica(pozitie);
+        trezesteScriitorul();
+    }
+
+    /*
+     * Suprascrierile de mai jos primesc argumentele evenimentului separat, fara a le
+     * concatena si fara a impacheta valorile primitive. Ordinea este mereu: referinte,
+     * intregi, reale; formatorul tipului stie ce reprezinta fiecare argument.
+     */
+
+    public static void log(TipEveniment tip) {
+        publica(tip, null, null, null, 0, 0, 0, 0, 0);
+    }
+
+    public static void log(TipEveniment tip, Object o1) {
+        publica(tip, o1, null, null, 0, 0, 0, 0, 0);
+    }
+
+    public static void log(TipEveniment tip, Object o1, Object o2) {
+        publica(tip, o1, o2, null, 0, 0, 0, 0, 0);
+    }
+
+    public static void log(TipEveniment tip, Object o1, Object o2, Object o3) {
+        publica(tip, o1, o2, o3, 0, 0, 0, 0, 0);
+    }
+
+    public static void log(TipEveniment tip, Object o1, Object o2, Object o3, double r1) {
+        publica(tip, o1, o2, o3, 0, 0, 0, r1, 0);
+    }
+
+    public static void log(TipEveniment tip, Object o1, Object o2, double r1) {
+        publica(tip, o1, o2, null, 0, 0, 0, r1, 0);
+    }
+
+    public static void log(TipEveniment tip, Object o1, Object o2, long n1, double r1) {
+        publica(tip, o1, o2, null, n1, 0, 0, r1, 0);
+    }
+
+    public static void log(TipEveniment tip, Object o1, Object o2, long n1, double r1, double r2) {
+        publica(tip, o1, o2, null, n1, 0, 0, r1, r2);
+    }
+
+    public static void log(TipEveniment tip, long n1) {
+        publica(tip, null, null, null, n1, 0, 0, 0, 0);
+    }
+
+    public static void log(TipEveniment tip, Object o1, long n1) {
+        publica(tip, o1, null, null, n1, 0, 0, 0, 0);
+    }
+
+    public static void log(TipEveniment tip, Object o1, long n1, long n2) {
+        publica(tip, o1, null, null, n1, n2, 0, 0, 0);
+    }
+
+    public static void log(TipEveniment tip, Object o1, long n1, long n2, double r1) {
+        publica(tip, o1, null, null, n1, n2, 0, r1, 0);
+    }
+
+    public static void log(TipEveniment tip, long n1, long n2, long n3) {
+        publica(tip, null, null, null, n1, n2, n3, 0, 0);
+    }
 
-            String timp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd"));
-            out.println(timp + " - " + actiune);
+    private static void publica(TipEveniment tip, Object o1, Object o2, Object o3,
+                                long n1, long n2, long n3, double r1, double r2) {
+        long pozitie = revendica(tip);
+        if (pozitie < 0) return;
+        EvenimentAudit e = INEL.slot(pozitie);
+        e.timp = System.currentTimeMillis();
+        e.tip = tip;
+        e.o1 = o1;
+        e.o2 = o2;
+        e.o3 = o3;
+        e.n1 = n1;
+        e.n2 = n2;
+        e.n3 = n3;
+        e.r1 = r1;
+        e.r2 = r2;
+        INEL.publica(pozitie);
+        trezesteScriitorul();
+    }
+
+    /**
+     * Filtreaza evenimentul dupa nivel si revendica un slot pentru el.
+     *
+     * @return pozitia slotului sau -1 daca evenimentul este filtrat sau bufferul este plin
+     */
+    private static long revendica(TipEveniment tip) {
+        if (!esteActiv(tip)) return -1;
+        long pozitie = INEL.revendica();
+        if (pozitie < 0) {
+            PIERDUTE.increment();
+            trezesteScriitorul();
+        }
+        return pozitie;
+    }
+
+    /** Trezeste firul de scriere daca asteapta evenimente. */
+    private static void trezesteScriitorul() {
+        if (scriitorAsteapta) LockSupport.unpark(SCRIITOR);
+    }
+
+    /**
+     * Scrie evenimentele ramase in buffer, inchide fisierul si opreste firul de scriere.
+     * Evenimentele publicate dupa oprire nu mai sunt scrise.
+     */
+    public static void inchide() {
+        oprit = true;
+        LockSupport.unpark(SCRIITOR);
+        try {
+            SCRIITOR.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Citeste liniile jurnalului de audit dintre doua momente, folosind indexul segmentelor.
+     * Evenimentele care inca asteapta in buffer nu sunt incluse.
+     *
+     * @param deLa inceputul intervalului (inclusiv)
+     * @param panaLa sfarsitul intervalului (exclusiv)
+     * @param consumator primeste fiecare linie, in ordine
+     */
+    public static void citeste(LocalDateTime deLa, LocalDateTime panaLa, Consumer<String> consumator) throws IOException {
+        ARHIVA.citeste(deLa, panaLa, consumator);
+    }
+
+    /**
+     * Citeste liniile jurnalului de audit dintr-o zi; sunt deschise doar segmentele acelei zile.
+     *
+     * @param zi ziua cautata
+     * @param consumator primeste fiecare linie, in ordine
+     */
+    public static void citesteZi(LocalDate zi, Consumer<String> consumator) throws IOException {
+        ARHIVA.citesteZi(zi, consumator);
+    }
+
+    /**
+     * Incepe o interogare a jurnalului de audit pe baza indexului dupa email, cont si tip.
+     *
+     * @return interogarea, de completat cu criterii si executat
+     */
+    public static InterogareAudit interogare() {
+        return new InterogareAudit(INDEX, ARHIVA);
+    }
+
+    /** Bucla firului de scriere. */
+    private static void scrie() {
+        // Segmentele existente se listeaza inainte de a deschide unul nou; cele necomprimate
+        // sunt comprimate, iar antetele tuturor se incarca in index pe un fir separat
+        List<ArhivaAudit.Segment> existente = ARHIVA.segmente();
+        ARHIVA.comprimaSegmenteInchise(existente);
+        Thread incarcare = new Thread(() -> incarcaIndex(existente), "audit-index");
+        incarcare.setDaemon(true);
+        incarcare.start();
+
+        Scriitor scriitor = new Scriitor(DIMENSIUNE_SEGMENT_IMPLICITA);
+        Consumer<EvenimentAudit> scrieEveniment = e -> {
+            scriitor.scrie(e);
+            e.goleste();
+        };
+        while (true) {
+            boolean ultimaTrecere = oprit;
+            int scrise = 0;
+            int lot;
+            while ((lot = INEL.consuma(scrieEveniment, DIMENSIUNE_LOT)) > 0) {
+                scrise += lot;
+                raporteazaPierdute(scriitor);
+                scriitor.flush();
+            }
+            if (scrise == 0 && raporteazaPierdute(scriitor)) {
+                scriitor.flush();
+            }
+            if (ultimaTrecere) break;
+            if (scrise == 0) asteaptaEvenimente();
+        }
+        scriitor.inchide();
+        ARHIVA.inchide();
+    }
+
+    /**
+     * Opreste firul de scriere pana cand un producator publica un eveniment sau pierde unul.
+     * Indicatorul este setat inainte de verificarea bufferului, deci un eveniment publicat
+     * dupa verificare gaseste indicatorul setat si trezeste firul.
+     */
+    private static void asteaptaEvenimente() {
+        scriitorAsteapta = true;
+        if (INEL.esteGol() && PIERDUTE.sum() == 0 && !oprit) {
+            LockSupport.park();
+        } else {
+            // Un producator a revendicat un slot si il completeaza chiar acum
+            Thread.onSpinWait();
+        }
+        scriitorAsteapta = false;
+    }
+
+    private static void incarcaIndex(List<ArhivaAudit.Segment> segmente) {
+        try {
+            IndexAudit istoric = new IndexAudit();
+            for (ArhivaAudit.Segment s : segmente) {
+                try {
+                    ARHIVA.incarcaAntete(s, istoric);
+                } catch (IOException e) {
+                    System.out.println("Eroare la indexarea segmentului de audit " + s.text() + ": " + e.getMessage());
+                }
+            }
+            INDEX.adaugaIstoric(istoric);
+        } finally {
+            INDEX.incarcareTerminata();
+        }
+    }
+
+    private static boolean raporteazaPierdute(Scriitor scriitor) {
+        long pierdute = PIERDUTE.sumThenReset();
+        if (pierdute == 0) return false;
+        scriitor.scriePierdute(System.currentTimeMillis(), pierdute);
+        return true;
+    }
+
+    /**
+     * Scrie liniile in segmentul curent si il inchide la schimbarea zilei sau cand depaseste
+     * dimensiunea maxima; segmentul inchis este trimis la comprimare. Folosit doar de firul
+     * de scriere.
+     * <p>
+     * Fiecare linie are forma {@code <moment> - <antet> - <text>}, unde antetul contine tipul
+     * evenimentului, conturile si emailul (vezi {@link InregistrareAudit}). Momentul este scris
+     * cu precizie de milisecunda; partea {@code yyyy-MM-dd HH:} se formateaza o singura data
+     * pe ora. Liniile scrise sunt adaugate in {@link IndexAudit} dupa flush, ca o cautare sa nu
+     * gaseasca niciodata o linie care nu este inca in fisier.
+     * </p>
+     */
+    private static final class Scriitor {
+        private final ZoneId zona = ZoneId.systemDefault();
+        private final long dimensiuneMaxima;
+
+        private OutputStream out;
+        private ArhivaAudit.Segment segment;
+        private long octeti;
+        private long sfarsitZi = Long.MIN_VALUE;
+
+        private long inceputOra = Long.MAX_VALUE;
+        private long sfarsitOra = Long.MIN_VALUE;
+        private String prefixOra;
+
+        private final StringBuilder linie = new StringBuilder(256);
+        private byte[] octetiLinie = new byte[512];
+        private final EvenimentAudit pierdute = new EvenimentAudit();
+
+        /** Liniile scrise de la ultimul flush, inca neadaugate in index. */
+        private final long[] pozitii = new long[DIMENSIUNE_LOT + 1];
+        private final TipEveniment[] tipuri = new TipEveniment[DIMENSIUNE_LOT + 1];
+        private final String[] emailuri = new String[DIMENSIUNE_LOT + 1];
+        private final int[] conturi = new int[DIMENSIUNE_LOT + 1];
+        private final int[] destinatii = new int[DIMENSIUNE_LOT + 1];
+        private int neindexate;
+
+        Scriitor(long dimensiuneMaxima) {
+            this.dimensiuneMaxima = dimensiuneMaxima;
+        }
+
+        void scriePierdute(long timp, long numar) {
+            pierdute.timp = timp;
+            pierdute.tip = TipEveniment.EVENIMENTE_PIERDUTE;
+            pierdute.n1 = numar;
+            scrie(pierdute);
+            pierdute.goleste();
+        }
+
+        void scrie(EvenimentAudit e) {
+            TipEveniment tip = e.tip;
+            String email = tip.email(e);
+            int cont = tip.cont(e, 0);
+            int destinatie = tip.cont(e, 1);
+            try {
+                // Un eveniment publicat cu putin inaintea miezului noptii, dar scris dupa unul
+                // din ziua urmatoare, ramane in segmentul curent
+                if (out == null || e.timp >= sfarsitZi || octeti >= dimensiuneMaxima) {
+                    roteste(e.timp);
+                }
+                if (out == null) return;
+
+                linie.setLength(0);
+                scrieTimp(e.timp);
+                linie.append(" - ");
+                InregistrareAudit.scrieAntet(linie, tip, email, cont, destinatie);
+                linie.append(" - ");
+                try {
+                    e.formateaza(linie);
+                } catch (RuntimeException ex) {
+                    linie.append("(eroare la formatare: ").append(ex).append(')');
+                }
+
+                long offset = octeti;
+                int lungime = codifica();
+                out.write(octetiLinie, 0, lungime);
+                octeti += lungime;
+
+                if (neindexate == pozitii.length) flush();
+                pozitii[neindexate] = segment.pozitie(offset);
+                tipuri[neindexate] = tip;
+                emailuri[neindexate] = email;
+                conturi[neindexate] = cont;
+                destinatii[neindexate] = destinatie;
+                neindexate++;
+            } catch (IOException ex) {
+                System.out.println("Eroare la scrierea in jurnalul de audit: " + ex.getMessage());
+            }
+        }
+
+        /** Codifica linia curenta in UTF-8, cu terminator, in {@code octetiLinie}. */
+        private int codifica() {
+            int lungime = linie.length();
+            if (octetiLinie.length < lungime + 1) {
+                octetiLinie = new byte[Math.max(lungime + 1, octetiLinie.length * 2)];
+            }
+            for (int i = 0; i < lungime; i++) {
+                char c = linie.charAt(i);
+                if (c >= 0x80) {
+                    // Rar: linia contine caractere non-ASCII
+                    byte[] utf8 = linie.append('\n').toString().getBytes(StandardCharsets.UTF_8);
+                    if (octetiLinie.length < utf8.length) octetiLinie = new byte[utf8.length];
+                    System.arraycopy(utf8, 0, octetiLinie, 0, utf8.length);
+                    return utf8.length;
+                }
+                octetiLinie[i] = (byte) c;
+            }
+            octetiLinie[lungime] = '\n';
+            return lungime + 1;
+        }
+
+        private void scrieTimp(long timp) {
+            if (timp < inceputOra || timp >= sfarsitOra) {
+                ZonedDateTime ora = Instant.ofEpochMilli(timp).atZone(zona).truncatedTo(ChronoUnit.HOURS);
+                inceputOra = ora.toInstant().toEpochMilli();
+                sfarsitOra = ora.plusHours(1).toInstant().toEpochMilli();
+                prefixOra = ora.format(FORMAT_ORA);
+            }
+            long ms = timp - inceputOra;
+            linie.append(prefixOra);
+            douaCifre(ms / 60_000);
+            linie.append(':');
+            douaCifre(ms / 1000 % 60);
+            linie.append('.');
+            int mili = (int) (ms % 1000);
+            linie.append((char) ('0' + mili / 100));
+            linie.append((char) ('0' + mili / 10 % 10));
+            linie.append((char) ('0' + mili % 10));
+        }
+
+        private void douaCifre(long valoare) {
+            linie.append((char) ('0' + valoare / 10));
+            linie.append((char) ('0' + valoare % 10));
+        }
+
+        private void roteste(long timp) throws IOException {
+            inchide();
+            LocalDate zi = Instant.ofEpochMilli(timp).atZone(zona).toLocalDate();
+            sfarsitZi = zi.plusDays(1).atStartOfDay(zona).toInstant().toEpochMilli();
+            segment = ARHIVA.segmentNou(zi);
+            out = new BufferedOutputStream(Files.newOutputStream(segment.text(),
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND), 64 * 1024);
+            octeti = Files.size(segment.text());
+        }
+
+        /** Scrie pe disc liniile din buffer si le adauga in index. */
+        void flush() {
+            if (out == null) return;
+            try {
+                out.flush();
+            } catch (IOException e) {
+                System.out.println("Eroare la scrierea in jurnalul de audit: " + e.getMessage());
+            }
+            if (neindexate > 0) {
+                INDEX.adauga(pozitii, tipuri, emailuri, conturi, destinatii, neindexate);
+                Arrays.fill(emailuri, 0, neindexate, null);
+                neindexate = 0;
+            }
+        }
 
-        } catch (IOException e) {
-            System.out.println("Eroare la scrierea in fisierul de log: " + e.getMessage());
+        /** Inchide segmentul curent si il trimite la comprimare. */
+        void inchide() {
+            if (out == null) return;
+            flush();
+            try {
+                out.close();
+                ARHIVA.comprimaInFundal(segment.text());
+            } catch (IOException e) {
+                System.out.println("Eroare la inchiderea segmentului de audit: " + e.getMessage());
+            }
+            out = null;
         }
     }
 }
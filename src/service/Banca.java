@@ -6,41 +6,81 @@ import model.*;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntSupplier;
+import java.util.function.Predicate;
 
 /**
  * Clasa {@code Banca} gestioneaza logica principala a aplicatiei.
  * <p>
  * Include operatii de autentificare, creare conturi, aplicare dobanzi si gestionare tranzactii.
  * </p>
+ * <p>
+ * Clasa poate fi folosita din mai multe fire simultan. Colectiile sunt concurente, iar
+ * operatiile care modifica solduri blocheaza doar conturile implicate, prin {@link BlocariConturi}.
+ * </p>
  *
  * @author
  */
 public class Banca {
 
-    private ArrayList<Client> clienti;
-    private HashMap<Integer, ContBancar> conturi;
-    private ArrayList<Tranzactie> tranzactii;
-    private int nextClientId = 1;
-    private int nextContId = 1000;
+    /** Numarul de lacate folosite pentru blocarea conturilor. */
+    private static final int NUMAR_LACATE = 256;
+
+    private final List<Client> clienti;
+    private final ConcurrentHashMap<Integer, ContBancar> conturi;
+    private final JurnalTranzactii tranzactii;
+    /** Index pe email (normalizat cu {@link #cheieEmail(String)}) -> client. */
+    private final ConcurrentHashMap<String, Client> clientiDupaEmail = new ConcurrentHashMap<>();
+    /** Index secundar: id client -> conturile clientului. */
+    private final ConcurrentHashMap<Integer, List<ContBancar>> conturiPeClient = new ConcurrentHashMap<>();
+    /** Totalurile soldurilor pe client (id client -> solduri pe tip de cont si valuta). */
+    private final ConcurrentHashMap<Integer, SolduriClient> solduriPeClient = new ConcurrentHashMap<>();
+    /** Index secundar: id cont -> pozitiile tranzactiilor contului in {@link #tranzactii}. */
+    private final ConcurrentHashMap<Integer, PozitiiTranzactii> tranzactiiPeCont = new ConcurrentHashMap<>();
+    private final BlocariConturi blocari = new BlocariConturi(NUMAR_LACATE);
+    private final AlocatorId alocatorId;
+    private final PersistentaAsincrona persistenta;
 
     public Banca() {
         CursValutarService.incarcaCursuri();
-        clienti = FileManager.incarcaClienti();
-        conturi = FileManager.incarcaConturi(clienti);
+        CursValutarService.pornesteUrmarirea();
+        clienti = new CopyOnWriteArrayList<>(FileManager.incarcaClienti());
+        for (Client c : clienti) clientiDupaEmail.putIfAbsent(cheieEmail(c.getEmail()), c);
+        FisierConturiBinar fisierConturi = FileManager.deschideFisierConturi();
+        conturi = new ConcurrentHashMap<>(FileManager.incarcaConturi(clienti, fisierConturi));
+        for (ContBancar c : conturi.values()) indexeazaCont(c);
         tranzactii = FileManager.incarcaTranzactii(conturi);
+        for (int i = 0, n = tranzactii.numar(); i < n; i++) {
+            if (conturi.containsKey(tranzactii.idSursa(i))) indexeazaTranzactie(tranzactii.idSursa(i), i);
+            if (conturi.containsKey(tranzactii.idDestinatie(i))) indexeazaTranzactie(tranzactii.idDestinatie(i), i);
+        }
+
+        // Valorile initiale se calculeaza doar la prima pornire, cand data/secvente.txt nu exista
+        EnumMap<AlocatorId.Secventa, IntSupplier> valoriInitiale = new EnumMap<>(AlocatorId.Secventa.class);
+        valoriInitiale.put(AlocatorId.Secventa.CLIENT,
+                () -> clienti.stream().mapToInt(c -> c.getId() + 1).max().orElse(1));
+        valoriInitiale.put(AlocatorId.Secventa.CONT,
+                () -> conturi.keySet().stream().mapToInt(id -> id + 1).max().orElse(1000));
+        valoriInitiale.put(AlocatorId.Secventa.TRANZACTIE,
+                () -> tranzactii.idMaxim() + 1);
+        alocatorId = AlocatorId.deschide(valoriInitiale);
 
-        for (Client c : clienti) nextClientId = Math.max(nextClientId, c.getId() + 1);
-        for (Integer id : conturi.keySet()) nextContId = Math.max(nextContId, id + 1);
+        persistenta = new PersistentaAsincrona(fisierConturi,
+                PersistentaAsincrona.INTERVAL_IMPLICIT_MS, PersistentaAsincrona.PRAG_LOT_IMPLICIT);
+        Runtime.getRuntime().addShutdownHook(new Thread(this::inchide, "oprire-banca"));
 
         LocalDate ultimaData = FileManager.citesteUltimaDataDobanda();
         if (ultimaData.isBefore(LocalDate.now().withDayOfMonth(1))) {
             aplicaDobandaLunaraPentruToateConturile();
             FileManager.salveazaUltimaDataDobanda(LocalDate.now());
-            AuditService.log("Dobanda lunara aplicata automat la pornirea aplicatiei.");
+            AuditService.log(TipEveniment.DOBANDA_AUTOMATA);
         }
 
-        AuditService.log("Initializare sistem Banca completata. Clienti: " + clienti.size() +
-                ", Conturi: " + conturi.size() + ", Tranzactii: " + tranzactii.size());
+        AuditService.log(TipEveniment.INITIALIZARE, clienti.size(), conturi.size(), tranzactii.numar());
     }
 
     /**
@@ -49,13 +89,12 @@ public class Banca {
      * @return client daca autentificarea reuseste, null altfel
      */
     public Client autentifica(String email, String parola) {
-        for (Client c : clienti) {
-            if (c.getEmail().equalsIgnoreCase(email) && c.getParola().equals(parola)) {
-                AuditService.log("LOGIN reusit pentru: " + email);
-                return c;
-            }
+        Client c = email == null ? null : clientiDupaEmail.get(cheieEmail(email));
+        if (c != null && c.getParola().equals(parola)) {
+            AuditService.log(TipEveniment.LOGIN_REUSIT, email);
+            return c;
         }
-        AuditService.log("LOGIN esuat pentru: " + email);
+        AuditService.log(TipEveniment.LOGIN_ESUAT, email);
         return null;
     }
 
@@ -63,33 +102,36 @@ public class Banca {
      * Creaza un client nou si optional un cont initial de tipul specificat.
      */
     public Client creeazaClientSiCont(String nume, String email, String parola,
-                                      String tipCont, String valuta, double soldInitial) throws DateInvalideException {
-        for (Client c : clienti) {
-            if (c.getEmail().equalsIgnoreCase(email)) {
-                AuditService.log("Eroare creare client: email deja existent (" + email + ")");
-                throw new DateInvalideException("Exista deja un cont asociat acestui email.");
-            }
+                                      String tipCont, Valuta valuta, long soldInitial) throws DateInvalideException {
+        if (clientiDupaEmail.containsKey(cheieEmail(email))) {
+            AuditService.log(TipEveniment.CLIENT_EXISTENT, email);
+            throw new DateInvalideException("Exista deja un cont asociat acestui email.");
         }
 
-        int idClient = nextClientId++;
+        int idClient = alocatorId.urmator(AlocatorId.Secventa.CLIENT);
         Client client = new Client(idClient, nume, email, parola);
+        // putIfAbsent rezerva emailul atomic, daca doua inregistrari cu acelasi email au loc simultan
+        if (clientiDupaEmail.putIfAbsent(cheieEmail(email), client) != null) {
+            AuditService.log(TipEveniment.CLIENT_EXISTENT, email);
+            throw new DateInvalideException("Exista deja un cont asociat acestui email.");
+        }
         clienti.add(client);
-        AuditService.log("Client nou creat: " + nume + " (" + email + ")");
+        persistenta.clientNou(client);
+        AuditService.log(TipEveniment.CLIENT_NOU, nume, email);
 
-        int idCont = nextContId++;
+        int idCont = alocatorId.urmator(AlocatorId.Secventa.CONT);
         ContBancar cont;
         if ("ECONOMII".equalsIgnoreCase(tipCont)) {
             cont = new ContEconomii(idCont, soldInitial, client, valuta,
-                    LocalDateTime.now(), ContEconomii.TipEconomii.ECONOMII, 0.0);
+                    LocalDateTime.now(), ContEconomii.TipEconomii.ECONOMII, 0);
         } else if ("CREDIT".equalsIgnoreCase(tipCont)) {
             cont = new ContCredit(idCont, soldInitial, client, valuta);
         } else {
             cont = new ContCurent(idCont, soldInitial, client, valuta);
         }
 
-        conturi.put(idCont, cont);
-        AuditService.log("Cont nou creat pentru client " + email + " | tip=" + tipCont +
-                " | valuta=" + valuta + " | sold initial=" + soldInitial);
+        inregistreazaCont(cont);
+        AuditService.log(TipEveniment.CONT_NOU, email, tipCont, valuta, Bani.laDouble(soldInitial));
 
         salveazaDate();
         return client;
@@ -98,102 +140,262 @@ public class Banca {
     /**
      * Creaza un cont pentru un client existent.
      */
-    public ContBancar creaContPentruClient(Client client, String tip, double soldInitial, String valuta) {
-        int id = nextContId++;
+    public ContBancar creaContPentruClient(Client client, String tip, long soldInitial, Valuta valuta) {
+        int id = alocatorId.urmator(AlocatorId.Secventa.CONT);
         ContBancar cont;
         if ("CURENT".equalsIgnoreCase(tip)) {
             cont = new ContCurent(id, soldInitial, client, valuta);
         } else if ("ECONOMII".equalsIgnoreCase(tip)) {
             cont = new ContEconomii(id, soldInitial, client, valuta,
-                    LocalDateTime.now(), ContEconomii.TipEconomii.ECONOMII, 0.0);
+                    LocalDateTime.now(), ContEconomii.TipEconomii.ECONOMII, 0);
         } else if ("CREDIT".equalsIgnoreCase(tip)) {
             cont = new ContCredit(id, soldInitial, client, valuta);
         } else {
             cont = new ContCurent(id, soldInitial, client, valuta);
         }
-        conturi.put(id, cont);
-        AuditService.log("Cont suplimentar creat pentru client: " + client.getEmail() +
-                " | tip=" + tip + " | valuta=" + valuta);
+        inregistreazaCont(cont);
+        AuditService.log(TipEveniment.CONT_SUPLIMENTAR, client.getEmail(), tip, valuta);
         return cont;
     }
 
     /**
      * Creaza un cont de economii pentru un client existent, cu tip specific.
      */
-    public ContEconomii creaContEconomiiPentruClient(Client client, double soldInitial,
-                                                     String valuta, String tipEconomii) {
-        int id = nextContId++;
+    public ContEconomii creaContEconomiiPentruClient(Client client, long soldInitial,
+                                                     Valuta valuta, String tipEconomii) {
+        int id = alocatorId.urmator(AlocatorId.Secventa.CONT);
         ContEconomii.TipEconomii tip = tipEconomii.equalsIgnoreCase("BONUS")
                 ? ContEconomii.TipEconomii.BONUS
                 : ContEconomii.TipEconomii.ECONOMII;
 
         ContEconomii cont = new ContEconomii(id, soldInitial, client, valuta,
-                LocalDateTime.now(), tip, 0.0);
-        conturi.put(id, cont);
-        AuditService.log("Cont economii creat pentru client: " + client.getEmail() +
-                " | tip=" + tipEconomii + " | valuta=" + valuta);
+                LocalDateTime.now(), tip, 0);
+        inregistreazaCont(cont);
+        AuditService.log(TipEveniment.CONT_ECONOMII, client.getEmail(), tipEconomii, valuta);
         return cont;
     }
 
     /**
      * Aplica dobanda lunara pentru toate conturile de economii.
+     * <p>
+     * Conturile sunt procesate in paralel de {@link MotorDobanzi}, toate fata de acelasi moment
+     * de evaluare. Doar conturile carora li s-a adaugat dobanda sunt marcate pentru salvare.
+     * </p>
+     *
+     * @return sumarul rularii: conturi evaluate, conturi atinse si dobanda totala pe valuta
      */
-    public void aplicaDobandaLunaraPentruToateConturile() {
-        int nr = 0;
+    public MotorDobanzi.RezultatDobanzi aplicaDobandaLunaraPentruToateConturile() {
+        List<ContEconomii> economii = new ArrayList<>();
         for (ContBancar c : conturi.values()) {
             if (c instanceof ContEconomii) {
-                ((ContEconomii) c).aplicaDobandaLunara();
-                nr++;
+                economii.add((ContEconomii) c);
             }
         }
+
+        Predicate<ContBancar> deschis = cont -> conturi.get(cont.getId()) == cont;
+        MotorDobanzi motor = new MotorDobanzi(ForkJoinPool.commonPool(), blocari, deschis, (cont, dobanda) -> {
+            persistenta.contModificat(cont);
+            soldModificat(cont, cont.getValuta(), cont.getSold() - dobanda);
+        });
+        MotorDobanzi.RezultatDobanzi rezultat = motor.aplica(economii, LocalDateTime.now());
+
         salveazaDate();
-        AuditService.log("Dobanda lunara aplicata pentru " + nr + " conturi de economii.");
+        AuditService.log(TipEveniment.DOBANDA_APLICATA, rezultat,
+                rezultat.getConturiEvaluate(), rezultat.getConturiAtinse());
+        return rezultat;
+    }
+
+    /**
+     * Normalizeaza un email pentru indexul de clienti, astfel incat cautarea sa nu tina cont
+     * de majuscule.
+     */
+    private static String cheieEmail(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Adauga un cont nou in harta conturilor si in indexul pe client si il marcheaza pentru salvare.
+     */
+    private void inregistreazaCont(ContBancar cont) {
+        conturi.put(cont.getId(), cont);
+        indexeazaCont(cont);
+        persistenta.contModificat(cont);
+    }
+
+    private void indexeazaCont(ContBancar cont) {
+        conturiPeClient.computeIfAbsent(cont.getClient().getId(), k -> new CopyOnWriteArrayList<>()).add(cont);
+        solduriClient(cont).contAdaugat(cont);
+    }
+
+    private void scoateDinIndex(ContBancar cont) {
+        conturiPeClient.computeIfPresent(cont.getClient().getId(), (k, lista) -> {
+            lista.remove(cont);
+            return lista.isEmpty() ? null : lista;
+        });
+        solduriClient(cont).contScos(cont);
+    }
+
+    private SolduriClient solduriClient(ContBancar cont) {
+        return solduriPeClient.computeIfAbsent(cont.getClient().getId(), k -> new SolduriClient());
+    }
+
+    /**
+     * Actualizeaza totalurile clientului dupa modificarea soldului sau a valutei unui cont.
+     * Se apeleaza cat timp contul este blocat.
+     */
+    private void soldModificat(ContBancar cont, Valuta valutaInainte, long soldInainte) {
+        solduriClient(cont).soldModificat(cont, valutaInainte, soldInainte);
+    }
+
+    /**
+     * Returneaza totalurile soldurilor unui client, pe tip de cont si valuta. Totalurile sunt
+     * tinute la zi la fiecare operatie, deci citirea nu parcurge conturile.
+     *
+     * @param idClient id-ul clientului
+     * @return instantaneul totalurilor
+     */
+    public SolduriClient.Instantaneu solduriClient(int idClient) {
+        SolduriClient solduri = solduriPeClient.get(idClient);
+        return solduri == null ? SolduriClient.Instantaneu.GOL : solduri.instantaneu();
     }
 
-    public ArrayList<Client> getClienti() { return clienti; }
-    public HashMap<Integer, ContBancar> getConturi() { return conturi; }
+    /**
+     * Returneaza conturile unui client direct din indexul pe client, fara a parcurge
+     * toate conturile bancii.
+     *
+     * @param idClient id-ul clientului
+     * @return lista (doar pentru citire) a conturilor clientului
+     */
+    public List<ContBancar> conturiClient(int idClient) {
+        List<ContBancar> lista = conturiPeClient.get(idClient);
+        return lista == null ? Collections.emptyList() : Collections.unmodifiableList(lista);
+    }
 
+    public List<Client> getClienti() { return clienti; }
+    public Map<Integer, ContBancar> getConturi() { return conturi; }
+
+    /**
+     * Adauga o tranzactie in istoric. Tranzactia este scrisa in jurnal la urmatoarea
+     * apelare a {@link #salveazaDate()}.
+     */
     public void adaugaTranzactie(Tranzactie t) {
-        tranzactii.add(t);
-        FileManager.salveazaTranzactii(tranzactii);
-        AuditService.log("Tranzactie adaugata: " + " | suma=" + t.getSuma() +
-                " | " + t.getSursa().getClient().getNume() + " -> " + t.getDestinatie().getClient().getNume());
+        inregistreazaTranzactie(t);
+        AuditService.log(TipEveniment.TRANZACTIE_ADAUGATA, numeTitular(t.getIdSursa()),
+                numeTitular(t.getIdDestinatie()), Bani.laDouble(t.getSuma()));
     }
 
-    public ArrayList<Tranzactie> getTranzactii() {
+    private void inregistreazaTranzactie(Tranzactie t) {
+        int pozitie;
+        synchronized (tranzactii) {
+            pozitie = tranzactii.adauga(t);
+            persistenta.tranzactieNoua(t);
+        }
+        indexeazaTranzactie(t, pozitie);
+    }
+
+    /**
+     * Inregistreaza o tranzactie efectuata acum. Momentul ei este luat de jurnal, la adaugare,
+     * deci tranzactiile concurente ajung in jurnal in ordinea timpului. Tranzactia este pusa in
+     * coada de salvare sub acelasi lacat, deci tranzactii.txt pastreaza ordinea din jurnal, iar
+     * la repornire jurnalul este reconstruit doar prin adaugari la sfarsit.
+     */
+    private Tranzactie inregistreazaTranzactieNoua(int id, ContBancar sursa, ContBancar destinatie, long suma) {
+        int pozitie;
+        Tranzactie t;
+        synchronized (tranzactii) {
+            pozitie = tranzactii.adaugaAcum(id, sursa.getId(), destinatie.getId(), suma, sursa.getValuta());
+            t = tranzactii.get(pozitie);
+            persistenta.tranzactieNoua(t);
+        }
+        indexeazaTranzactie(t, pozitie);
+        return t;
+    }
+
+    private void indexeazaTranzactie(Tranzactie t, int pozitie) {
+        indexeazaTranzactie(t.getIdSursa(), pozitie);
+        if (t.getIdDestinatie() != t.getIdSursa()) indexeazaTranzactie(t.getIdDestinatie(), pozitie);
+    }
+
+    private void indexeazaTranzactie(int idCont, int pozitie) {
+        tranzactiiPeCont.computeIfAbsent(idCont, k -> new PozitiiTranzactii()).adauga(pozitie);
+    }
+
+    /** @return cate tranzactii are un cont deschis */
+    public int numarTranzactiiCont(int idCont) {
+        PozitiiTranzactii pozitii = tranzactiiPeCont.get(idCont);
+        return pozitii == null ? 0 : pozitii.numar();
+    }
+
+    /**
+     * Copiaza o pagina din pozitiile tranzactiilor unui cont, pentru afisarea treptata a
+     * unui istoric mare.
+     *
+     * @param idCont id-ul contului
+     * @param de indicele (in istoricul contului) primei tranzactii din pagina
+     * @param destinatie vectorul in care se scriu pozitiile din jurnal
+     * @return cate pozitii au fost scrise; 0 daca pagina este dupa sfarsit sau contul a fost inchis
+     */
+    public int paginaTranzactiiCont(int idCont, int de, int[] destinatie) {
+        PozitiiTranzactii pozitii = tranzactiiPeCont.get(idCont);
+        return pozitii == null ? 0 : pozitii.copiaza(de, destinatie);
+    }
+
+    /** @return numele titularului unui cont sau {@code null} daca acesta a fost inchis */
+    private String numeTitular(int idCont) {
+        ContBancar cont = conturi.get(idCont);
+        return cont == null ? null : cont.getClient().getNume();
+    }
+
+    /**
+     * Returneaza istoricul tranzactiilor, inclusiv al conturilor inchise. Parcurgerea este
+     * sigura in timp ce alte fire adauga tranzactii (cele adaugate dupa citirea
+     * {@link JurnalTranzactii#numar()} nu sunt incluse).
+     */
+    public JurnalTranzactii getTranzactii() {
         return tranzactii;
     }
 
-    public void salveazaDate() {
-        FileManager.salveazaClienti(clienti);
-        FileManager.salveazaConturi(conturi);
-        FileManager.salveazaTranzactii(tranzactii);
-        AuditService.log("Datele au fost salvate pe disc.");
+    /**
+     * Cere salvarea pe disc a modificarilor facute de la ultima salvare.
+     * <p>
+     * Metoda nu asteapta scrierea: modificarile sunt scrise in lot de firul de persistenta.
+     * Daca nu exista modificari, niciun fisier nu este atins. Clientii si tranzactiile noi
+     * sunt adaugate la sfarsitul fisierelor; jurnalul de tranzactii nu este rescris niciodata.
+     * </p>
+     *
+     * @return un handle care se completeaza dupa ce modificarile au ajuns pe disc;
+     *         apelantii care au nevoie de durabilitate pot apela {@code join()} pe el
+     */
+    public CompletableFuture<Void> salveazaDate() {
+        return persistenta.salveaza();
+    }
+
+    /**
+     * Scrie toate modificarile ramase si opreste firul de persistenta, apoi scrie
+     * evenimentele de audit ramase.
+     */
+    public void inchide() {
+        CursValutarService.opresteUrmarirea();
+        persistenta.inchide();
+        AuditService.inchide();
     }
 
     /**
      * Gaseste toate conturile unui client.
      */
     public List<ContBancar> getConturiClient(Client client) {
-        List<ContBancar> lista = new ArrayList<>();
-        for (ContBancar c : conturi.values()) {
-            if (c.getClient().getId() == client.getId()) {
-                lista.add(c);
-            }
-        }
-        AuditService.log("Conturi obtinute pentru client: " + client.getEmail() +
-                " | numar conturi=" + lista.size());
+        List<ContBancar> lista = conturiClient(client.getId());
+        AuditService.log(TipEveniment.CONTURI_CLIENT, client.getEmail(), lista.size());
         return lista;
     }
 
     /**
      * Executa retragere cu reguli speciale pentru conturile BONUS.
      */
-    public void retrage(Client client, int contId, double suma) throws Exception {
+    public void retrage(Client client, int contId, long suma) throws Exception {
         ContBancar cont = conturi.get(contId);
         if (cont == null || cont.getClient().getId() != client.getId()) {
-            AuditService.log("Eroare retragere: cont inexistent sau apartine altui client (" +
-                    client.getEmail() + ")");
+            AuditService.log(TipEveniment.RETRAGERE_CONT_INVALID, client.getEmail());
             throw new Exception("Cont inexistent sau nu apartine clientului.");
         }
 
@@ -207,47 +409,131 @@ public class Banca {
             }
         }
 
-        cont.retrage(suma);
-        AuditService.log("Retragere efectuata: " + suma + " " + cont.getValuta() +
-                " | cont=" + contId + " | client=" + client.getEmail());
+        blocari.blocheaza(contId);
+        try {
+            if (conturi.get(contId) != cont) {
+                throw new Exception("Cont inexistent sau nu apartine clientului.");
+            }
+            long inainte = cont.getSold();
+            cont.retrage(suma);
+            soldModificat(cont, cont.getValuta(), inainte);
+            persistenta.contModificat(cont);
+        } finally {
+            blocari.deblocheaza(contId);
+        }
+        AuditService.log(TipEveniment.RETRAGERE, cont.getValuta(), client.getEmail(), contId, Bani.laDouble(suma));
         salveazaDate();
     }
 
     /**
-     * Inchide un cont daca regulile permit acest lucru.
+     * Depune o suma, exprimata in subunitati ale valutei contului, intr-un cont al clientului.
+     */
+    public void depune(Client client, int contId, long suma) throws Exception {
+        ContBancar cont = conturi.get(contId);
+        if (cont == null || cont.getClient().getId() != client.getId()) {
+            throw new Exception("Cont inexistent sau nu apartine clientului.");
+        }
+        if (suma <= 0) {
+            throw new Exception("Suma trebuie sa fie pozitiva!");
+        }
+
+        blocari.blocheaza(contId);
+        try {
+            if (conturi.get(contId) != cont) {
+                throw new Exception("Cont inexistent sau nu apartine clientului.");
+            }
+            long inainte = cont.getSold();
+            cont.depune(suma);
+            soldModificat(cont, cont.getValuta(), inainte);
+            persistenta.contModificat(cont);
+        } finally {
+            blocari.deblocheaza(contId);
+        }
+        AuditService.log(TipEveniment.DEPUNERE, cont.getValuta(), client.getEmail(), contId, Bani.laDouble(suma));
+        salveazaDate();
+    }
+
+    /**
+     * Schimba valuta unui cont al clientului, convertind soldul la cursul curent.
+     */
+    public void schimbaValuta(Client client, int contId, Valuta valutaNoua) throws Exception {
+        ContBancar cont = conturi.get(contId);
+        if (cont == null || cont.getClient().getId() != client.getId()) {
+            throw new Exception("Cont inexistent sau nu apartine clientului.");
+        }
+
+        blocari.blocheaza(contId);
+        try {
+            if (conturi.get(contId) != cont) {
+                throw new Exception("Cont inexistent sau nu apartine clientului.");
+            }
+            Valuta valutaInainte = cont.getValuta();
+            long inainte = cont.getSold();
+            cont.schimbaValuta(valutaNoua);
+            soldModificat(cont, valutaInainte, inainte);
+            persistenta.contModificat(cont);
+        } finally {
+            blocari.deblocheaza(contId);
+        }
+        salveazaDate();
+    }
+
+    /**
+     * Inchide un cont daca regulile permit acest lucru. Tranzactiile contului raman in istoric.
      */
     public void inchideCont(int contId, int clientId) throws Exception {
         ContBancar cont = conturi.get(contId);
 
         if (cont == null) {
-            AuditService.log("Eroare: incercare de inchidere cont inexistent (id=" + contId + ")");
+            AuditService.log(TipEveniment.INCHIDERE_CONT_INEXISTENT, contId);
             throw new Exception("Contul nu exista!");
         }
 
         if (cont.getClient().getId() != clientId) {
-            AuditService.log("Eroare: incercare de inchidere cont care nu apartine clientului (id=" + contId + ")");
+            AuditService.log(TipEveniment.INCHIDERE_CONT_STRAIN, contId);
             throw new Exception("Nu poti inchide un cont care nu iti apartine!");
         }
 
-        if (Math.abs(cont.getSold()) > 0.01) {
-            AuditService.log("Eroare inchidere cont: sold diferit de zero pentru cont " + contId);
-            throw new Exception(String.format(
-                    "Contul trebuie sa aiba sold 0 pentru a fi inchis!\nSold curent: %.2f %s",
-                    cont.getSold(), cont.getValuta()
-            ));
+        blocari.blocheaza(contId);
+        try {
+            if (cont.getSold() != 0) {
+                AuditService.log(TipEveniment.INCHIDERE_SOLD_NENUL, contId);
+                throw new Exception(String.format(
+                        "Contul trebuie sa aiba sold 0 pentru a fi inchis!\nSold curent: %s %s",
+                        Bani.formateaza(cont.getSold()), cont.getValuta()
+                ));
+            }
+            if (!conturi.remove(contId, cont)) {
+                throw new Exception("Contul nu exista!");
+            }
+            scoateDinIndex(cont);
+            // Tranzactiile raman in jurnal; doar contul inchis nu mai are o lista proprie
+            tranzactiiPeCont.remove(contId);
+            persistenta.contInchis(contId);
+        } finally {
+            blocari.deblocheaza(contId);
         }
 
-        conturi.remove(contId);
-        tranzactii.removeIf(t ->
-                t.getSursa().getId() == contId || t.getDestinatie().getId() == contId
-        );
-
         salveazaDate();
-        AuditService.log("Cont inchis cu succes: " + contId + " (Client: " +
-                cont.getClient().getNume() + ")");
+        AuditService.log(TipEveniment.CONT_INCHIS, cont.getClient().getNume(), contId);
+    }
+
+    /**
+     * Transfera o suma, exprimata in subunitati ale valutei contului sursa, la cursurile curente.
+     */
+    public void transfera(Client client, int idContSursa, int idContDest, long suma) throws Exception {
+        transfera(client, idContSursa, idContDest, suma, CursValutarService.instantaneu());
     }
 
-    public void transfera(Client client, int idContSursa, int idContDest, double suma) throws Exception {
+    /**
+     * Transfera o suma, exprimata in subunitati ale valutei contului sursa. Daca valuta destinatiei este alta,
+     * suma depusa este convertita cu cursurile date, de obicei aceleasi cu care a fost
+     * calculata si confirmata suma in interfata.
+     *
+     * @param curs instantaneul de cursuri folosit pentru tot transferul
+     */
+    public void transfera(Client client, int idContSursa, int idContDest, long suma,
+                          CursuriValutare curs) throws Exception {
         ContBancar sursa = conturi.get(idContSursa);
         ContBancar destinatie = conturi.get(idContDest);
 
@@ -268,20 +554,40 @@ public class Banca {
         boolean destinatarEsteAltClient = sursa.getClient().getId() != destinatie.getClient().getId();
 
         if (esteEconomiiSauCredit && destinatarEsteAltClient) {
-            AuditService.log("Eroare transfer: incercare de transfer din cont " +
-                    sursa.getId() + " (" + sursa.getClass().getSimpleName() + ") catre alt client.");
+            AuditService.log(TipEveniment.TRANSFER_INTERZIS, sursa.getClass(), sursa.getId());
             throw new Exception("Nu poti face transfer dintr-un cont de economii sau credit catre alt client!");
         }
 
         // --- Execută transferul ---
-        sursa.retrage(suma);
-        destinatie.depune(suma);
-
-        Tranzactie t = new Tranzactie(new Random().nextInt(999999),sursa, destinatie, suma);
-        adaugaTranzactie(t);
+        // Se blocheaza doar cele doua conturi, in ordine determinista
+        Tranzactie t;
+        blocari.blocheaza(idContSursa, idContDest);
+        try {
+            if (conturi.get(idContSursa) != sursa || conturi.get(idContDest) != destinatie) {
+                throw new Exception("Unul dintre conturi nu exista!");
+            }
+            // Id-ul se aloca inaintea oricarei modificari de sold: daca alocarea esueaza,
+            // conturile raman neatinse
+            int idTranzactie = alocatorId.urmator(AlocatorId.Secventa.TRANZACTIE);
+            // Conversia poate fi refuzata (cursuri neincarcate), deci se face tot inainte
+            long sumaDepusa = curs.convertesteBani(suma, sursa.getValuta(), destinatie.getValuta());
+            long inainte = sursa.getSold();
+            sursa.retrage(suma);
+            soldModificat(sursa, sursa.getValuta(), inainte);
+            inainte = destinatie.getSold();
+            destinatie.depune(sumaDepusa);
+            soldModificat(destinatie, destinatie.getValuta(), inainte);
+            persistenta.contModificat(sursa);
+            persistenta.contModificat(destinatie);
+
+            t = inregistreazaTranzactieNoua(idTranzactie, sursa, destinatie, suma);
+        } finally {
+            blocari.deblocheaza(idContSursa, idContDest);
+        }
+        AuditService.log(TipEveniment.TRANZACTIE_ADAUGATA, sursa.getClient().getNume(),
+                destinatie.getClient().getNume(), Bani.laDouble(t.getSuma()));
 
         salveazaDate();
-        AuditService.log("Transfer reusit: " + suma + " " + sursa.getValuta() +
-                " | din cont " + idContSursa + " catre cont " + idContDest);
+        AuditService.log(TipEveniment.TRANSFER_REUSIT, sursa.getValuta(), idContSursa, idContDest, Bani.laDouble(suma));
     }
 }
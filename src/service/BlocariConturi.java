@@ -0,0 +1,89 @@
+package service;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Clasa {@code BlocariConturi} ofera blocari pe conturi printr-un set fix de lacate (lock striping).
+ * <p>
+ * Fiecare cont este asociat unui lacat dupa id-ul sau. Operatiile pe conturi fara legatura
+ * folosesc, de regula, lacate diferite si pot rula in paralel, fara o blocare globala.
+ * Cand sunt necesare doua conturi (de exemplu la transfer), lacatele se iau mereu in ordinea
+ * indexului lor, deci doua transferuri in sensuri opuse nu se pot bloca reciproc.
+ * </p>
+ */
+public class BlocariConturi {
+
+    private final ReentrantLock[] lacate;
+    private final int masca;
+
+    /**
+     * Creeaza setul de lacate.
+     *
+     * @param numarLacate numarul minim de lacate; se rotunjeste la o putere a lui 2
+     */
+    public BlocariConturi(int numarLacate) {
+        int n = Integer.highestOneBit(Math.max(1, numarLacate - 1)) << 1;
+        lacate = new ReentrantLock[n];
+        for (int i = 0; i < n; i++) {
+            lacate[i] = new ReentrantLock();
+        }
+        masca = n - 1;
+    }
+
+    private int index(int idCont) {
+        int h = idCont * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & masca;
+    }
+
+    /**
+     * Blocheaza contul cu id-ul dat.
+     *
+     * @param idCont id-ul contului
+     */
+    public void blocheaza(int idCont) {
+        lacate[index(idCont)].lock();
+    }
+
+    /**
+     * Deblocheaza contul cu id-ul dat.
+     *
+     * @param idCont id-ul contului
+     */
+    public void deblocheaza(int idCont) {
+        lacate[index(idCont)].unlock();
+    }
+
+    /**
+     * Blocheaza doua conturi intr-o ordine determinista.
+     *
+     * @param idA id-ul primului cont
+     * @param idB id-ul celui de-al doilea cont
+     */
+    public void blocheaza(int idA, int idB) {
+        int a = index(idA);
+        int b = index(idB);
+        if (a == b) {
+            lacate[a].lock();
+        } else {
+            lacate[Math.min(a, b)].lock();
+            lacate[Math.max(a, b)].lock();
+        }
+    }
+
+    /**
+     * Deblocheaza doua conturi blocate cu {@link #blocheaza(int, int)}.
+     *
+     * @param idA id-ul primului cont
+     * @param idB id-ul celui de-al doilea cont
+     */
+    public void deblocheaza(int idA, int idB) {
+        int a = index(idA);
+        int b = index(idB);
+        if (a == b) {
+            lacate[a].unlock();
+        } else {
+            lacate[Math.max(a, b)].unlock();
+            lacate[Math.min(a, b)].unlock();
+        }
+    }
+}
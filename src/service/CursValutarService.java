@@ -1,108 +1,241 @@
 package service;
 
+import model.Valuta;
+
 import java.io.*;
-import java.util.*;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Incarca cursul valutar din fisier si ofera conversii simple.
  * Include vector pentru istoric si matrice pentru conversii multiple valute.
+ * <p>
+ * Cursurile curente sunt un {@link CursuriValutare} imutabil, publicat printr-o singura
+ * scriere volatila: cititorii vad fie instantaneul vechi, fie pe cel nou, niciodata o matrice
+ * pe jumatate scrisa. Dupa {@link #pornesteUrmarirea()}, fisierul {@code data/curs.txt} este
+ * urmarit cu un {@link WatchService} si reincarcat la fiecare modificare, fara repornire.
+ * </p>
+ * <p>
+ * Fiecare set de cursuri incarcat este adaugat si in {@link IstoricCursuri}
+ * ({@code data/istoric_cursuri.txt}), din care se pot afla cursurile aplicate la o data trecuta.
+ * </p>
  */
 public class CursValutarService {
 
     private static final String PATH = "data/curs.txt";
+    private static final String PATH_ISTORIC = "data/istoric_cursuri.txt";
+
+    /** Cat se asteapta dupa ultima modificare a fisierului inainte de reincarcare. */
+    private static final long PAUZA_REINCARCARE_MS = 200;
+
+    private static volatile CursuriValutare curent = CursuriValutare.faraCursuri();
 
-    private static final String[] VALUTE = {"RON", "EUR", "USD", "GBP"};
-    private static double[][] matriceCursuri = new double[4][4];
+    private static final IstoricCursuri ISTORIC = IstoricCursuri.incarca(Paths.get(PATH_ISTORIC));
+
+    private static WatchService urmarire;
+    private static Thread firUrmarire;
 
     /**
-     * Initializeaza matricea cu valori identitate (1.0 pe diagonala)
+     * Incarca cursurile din fisier, publica noul instantaneu si il adauga in istoric
+     * pentru ziua curenta. Daca fisierul lipseste sau nu este valid, se pastreaza cursurile
+     * anterioare; daca nu a fost incarcat inca niciun curs, operatiile intre valute diferite
+     * sunt refuzate (vezi {@link CursuriValutare#faraCursuri()}).
      */
-    private static void initializeazaMatrice() {
-        for (int i = 0; i < 4; i++) {
-            for (int j = 0; j < 4; j++) {
-                matriceCursuri[i][j] = (i == j) ? 1.0 : 0.0;
-            }
+    public static void incarcaCursuri() {
+        File f = new File(PATH);
+        CursuriValutare nou = f.exists() ? citesteCursuri(f) : null;
+        if (nou != null) {
+            curent = nou;
+            ISTORIC.inregistreaza(nou.getIncarcatLa().toLocalDate(), nou);
+        } else if (!curent.esteComplet()) {
+            System.out.println("Cursurile valutare nu au putut fi incarcate din " + PATH
+                    + "; operatiile intre valute diferite sunt refuzate pana la incarcarea lor.");
+            AuditService.log(TipEveniment.CURSURI_INDISPONIBILE, PATH);
         }
     }
 
     /**
-     * Initializeaza matricea cu ajutorul fisierului
+     * Citeste fisierul de cursuri intr-un instantaneu nou.
+     * Fiecare linie are forma {@code <VALUTA>_TO_<VALUTA>=<curs>}; liniile cu valute
+     * necunoscute sunt semnalate si ignorate. Perechile care lipsesc sunt deduse prin
+     * {@link CursuriValutare#completeaza(double[])}.
+     *
+     * @return instantaneul sau {@code null} daca fisierul nu a putut fi citit, nu contine
+     *         niciun curs (de exemplu, daca este prins in timpul rescrierii) sau nu leaga
+     *         toate valutele intre ele
      */
-
-    public static void incarcaCursuri() {
-        initializeazaMatrice();
-
-        File f = new File(PATH);
-        if (!f.exists()) return;
-
+    private static CursuriValutare citesteCursuri(File f) {
+        double[] cursuri = CursuriValutare.matriceIdentitate();
+        int citite = 0;
         try (BufferedReader br = new BufferedReader(new FileReader(f))) {
             String linie;
             while ((linie = br.readLine()) != null) {
                 String[] parts = linie.split("=");
                 if (parts.length != 2) continue;
-                String key = parts[0].trim();
-                double val = Double.parseDouble(parts[1].trim());
-
-                if ("RON_TO_EUR".equalsIgnoreCase(key)) {
-                    matriceCursuri[0][1] = val;
-                } else if ("EUR_TO_RON".equalsIgnoreCase(key)) {
-                    matriceCursuri[1][0] = val;
-                }
-                else if ("RON_TO_USD".equalsIgnoreCase(key)) {
-                    matriceCursuri[0][2] = val;
-                } else if ("USD_TO_RON".equalsIgnoreCase(key)) {
-                    matriceCursuri[2][0] = val;
-                } else if ("RON_TO_GBP".equalsIgnoreCase(key)) {
-                    matriceCursuri[0][3] = val;
-                } else if ("GBP_TO_RON".equalsIgnoreCase(key)) {
-                    matriceCursuri[3][0] = val;
-                } else if ("EUR_TO_USD".equalsIgnoreCase(key)) {
-                    matriceCursuri[1][2] = val;
-                } else if ("USD_TO_EUR".equalsIgnoreCase(key)) {
-                    matriceCursuri[2][1] = val;
-                } else if ("EUR_TO_GBP".equalsIgnoreCase(key)) {
-                    matriceCursuri[1][3] = val;
-                } else if ("GBP_TO_EUR".equalsIgnoreCase(key)) {
-                    matriceCursuri[3][1] = val;
-                } else if ("USD_TO_GBP".equalsIgnoreCase(key)) {
-                    matriceCursuri[2][3] = val;
-                } else if ("GBP_TO_USD".equalsIgnoreCase(key)) {
-                    matriceCursuri[3][2] = val;
+                String[] valute = parts[0].trim().toUpperCase().split("_TO_");
+                if (valute.length != 2) continue;
+                try {
+                    Valuta din = Valuta.din(valute[0]);
+                    Valuta in = Valuta.din(valute[1]);
+                    double curs = Double.parseDouble(parts[1].trim());
+                    if (!(curs > 0.0) || Double.isInfinite(curs)) {
+                        throw new IllegalArgumentException("curs invalid");
+                    }
+                    cursuri[CursuriValutare.index(din, in)] = curs;
+                    citite++;
+                } catch (IllegalArgumentException e) {
+                    System.out.println("Linie de curs ignorata (" + linie + "): " + e.getMessage());
                 }
             }
-        } catch (Exception e) {
+        } catch (IOException e) {
             System.out.println("Eroare la incarcarea cursului: " + e.getMessage());
+            return null;
+        }
+        if (citite == 0) return null;
+
+        int lipsa = CursuriValutare.completeaza(cursuri);
+        if (lipsa > 0) {
+            System.out.println("Cursuri incomplete: " + lipsa
+                    + " perechi de valute nu pot fi deduse; se pastreaza cursurile anterioare.");
+            return null;
         }
+        return new CursuriValutare(cursuri, LocalDateTime.now());
     }
 
+    /** @return {@code true} daca a fost incarcat un set complet de cursuri */
+    public static boolean cursuriIncarcate() {
+        return curent.esteComplet();
+    }
 
+    /**
+     * Returneaza instantaneul curent al cursurilor. O operatie care face mai multe conversii
+     * il citeste o singura data, ca toate conversiile ei sa foloseasca acelasi curs.
+     *
+     * @return cursurile curente
+     */
+    public static CursuriValutare instantaneu() {
+        return curent;
+    }
 
     /**
-     * Converteste folosind matricea de cursuri
+     * Converteste folosind cursurile curente
      */
-    public static double convertCuMatrice(double suma, String from, String to) {
-        int indexFrom = getIndexValuta(from);
-        int indexTo = getIndexValuta(to);
-
-        double curs = matriceCursuri[indexFrom][indexTo];
-        if (curs == 0.0 && indexFrom != indexTo) {
-            System.out.println("Curs nesetat intre " + from + " si " + to);
-            return suma;
-        }
+    public static double convertCuMatrice(double suma, Valuta from, Valuta to) {
+        return curent.converteste(suma, from, to);
+    }
+
+    /**
+     * Converteste o suma in subunitati folosind cursurile curente.
+     *
+     * @see CursuriValutare#convertesteBani(long, Valuta, Valuta)
+     */
+    public static long convertBani(long suma, Valuta from, Valuta to) {
+        return curent.convertesteBani(suma, from, to);
+    }
+
+    /**
+     * Converteste un lot de sume intr-o singura valuta, cu acelasi instantaneu de cursuri
+     * pentru toate sumele.
+     *
+     * @see CursuriValutare#convertesteLot(double[], int[], int, Valuta, double[])
+     */
+    public static void convertesteLot(double[] sume, int[] valute, int numar, Valuta tinta, double[] rezultat) {
+        curent.convertesteLot(sume, valute, numar, tinta, rezultat);
+    }
+
+    /**
+     * @return istoricul cursurilor aplicate
+     */
+    public static IstoricCursuri istoric() {
+        return ISTORIC;
+    }
+
+    /**
+     * Converteste o suma la cursul aplicat intr-o zi trecuta. Daca istoricul este gol,
+     * se folosesc cursurile curente.
+     *
+     * @param zi ziua al carei curs se aplica
+     * @return suma convertita
+     */
+    public static double convertLaData(double suma, Valuta from, Valuta to, LocalDate zi) {
+        double curs = ISTORIC.curs(from, to, zi);
+        return Double.isNaN(curs) ? curent.converteste(suma, from, to) : suma * curs;
+    }
 
-        return suma * curs;
+    /**
+     * Porneste firul care reincarca cursurile la modificarea fisierului {@code data/curs.txt}.
+     * Apelurile repetate nu pornesc un al doilea fir.
+     */
+    public static synchronized void pornesteUrmarirea() {
+        if (firUrmarire != null) return;
+        Path fisier = Paths.get(PATH).toAbsolutePath();
+        try {
+            urmarire = FileSystems.getDefault().newWatchService();
+            fisier.getParent().register(urmarire,
+                    StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            System.out.println("Urmarirea cursului valutar nu a putut fi pornita: " + e.getMessage());
+            return;
+        }
+        WatchService ws = urmarire;
+        firUrmarire = new Thread(() -> urmareste(ws, fisier.getFileName()), "curs-urmarire");
+        firUrmarire.setDaemon(true);
+        firUrmarire.start();
     }
 
     /**
-     * Returneaza indexul valutei in matrice
+     * Opreste urmarirea fisierului de cursuri; cursurile curente raman valabile.
      */
-    private static int getIndexValuta(String valuta) {
-        for (int i = 0; i < VALUTE.length; i++) {
-            if (VALUTE[i].equalsIgnoreCase(valuta)) {
-                return i;
+    public static synchronized void opresteUrmarirea() {
+        if (firUrmarire == null) return;
+        try {
+            urmarire.close();
+            firUrmarire.join();
+        } catch (IOException e) {
+            System.out.println("Eroare la oprirea urmaririi cursului: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        urmarire = null;
+        firUrmarire = null;
+    }
+
+    private static void urmareste(WatchService ws, Path numeFisier) {
+        try {
+            while (true) {
+                WatchKey cheie = ws.take();
+                boolean modificat = contineFisierul(cheie, numeFisier);
+                // Un editor poate scrie fisierul in mai multi pasi: se asteapta pana se linisteste
+                while ((cheie = ws.poll(PAUZA_REINCARCARE_MS, TimeUnit.MILLISECONDS)) != null) {
+                    modificat |= contineFisierul(cheie, numeFisier);
+                }
+                if (modificat) {
+                    incarcaCursuri();
+                    AuditService.log(TipEveniment.CURSURI_REINCARCATE, PATH);
+                }
             }
+        } catch (ClosedWatchServiceException e) {
+            // Urmarirea a fost oprita
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
-        return -1;
     }
 
-}
\ No newline at end of file
+    private static boolean contineFisierul(WatchKey cheie, Path numeFisier) {
+        boolean gasit = false;
+        for (WatchEvent<?> ev : cheie.pollEvents()) {
+            if (numeFisier.equals(ev.context())) gasit = true;
+        }
+        cheie.reset();
+        return gasit;
+    }
+}
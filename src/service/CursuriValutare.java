@@ -0,0 +1,203 @@
+package service;
+
+import model.Bani;
+import model.Valuta;
+
+import java.time.LocalDateTime;
+
+/**
+ * Clasa {@code CursuriValutare} este un instantaneu imutabil al cursurilor valutare.
+ * <p>
+ * Cursurile sunt tinute intr-un singur vector, indexat dupa ordinalele celor doua valute.
+ * Matricea este completa: perechile lipsa din fisier sunt deduse la incarcare
+ * (vezi {@link #completeaza(double[])}), deci o conversie este doar o citire si o inmultire.
+ * Un instantaneu nu se modifica dupa creare: {@link CursValutarService} publica unul nou
+ * la fiecare reincarcare, iar o operatie care are nevoie de mai multe conversii (de exemplu
+ * un transfer) pastreaza acelasi instantaneu de la inceput pana la sfarsit.
+ * </p>
+ * <p>
+ * Pana la incarcarea primului fisier valid se foloseste {@link #faraCursuri()}, care are doar
+ * cursurile unei valute cu ea insasi. Orice conversie intre valute diferite arunca atunci
+ * {@link IllegalStateException}: o suma gresita nu este niciodata folosita in locul cursului.
+ * </p>
+ */
+public final class CursuriValutare {
+
+    private static final int NUMAR_VALUTE = Valuta.values().length;
+
+    private final double[] cursuri;
+    /** Aceleasi cursuri, transpuse: cursurile spre o valuta sunt consecutive. */
+    private final double[] cursuriSpre;
+    private final LocalDateTime incarcatLa;
+    /** {@code true} daca toate perechile de valute au curs. */
+    private final boolean complet;
+
+    /**
+     * @param cursuri vectorul de {@code NUMAR_VALUTE * NUMAR_VALUTE} cursuri; nu mai este modificat
+     */
+    CursuriValutare(double[] cursuri, LocalDateTime incarcatLa) {
+        this.cursuri = cursuri;
+        this.cursuriSpre = new double[cursuri.length];
+        for (int i = 0; i < NUMAR_VALUTE; i++) {
+            for (int j = 0; j < NUMAR_VALUTE; j++) {
+                cursuriSpre[j * NUMAR_VALUTE + i] = cursuri[i * NUMAR_VALUTE + j];
+            }
+        }
+        this.incarcatLa = incarcatLa;
+        boolean toate = true;
+        for (double curs : cursuri) {
+            if (!(curs > 0.0)) toate = false;
+        }
+        this.complet = toate;
+    }
+
+    /**
+     * @return instantaneul folosit cat timp nu a fost incarcat niciun fisier de cursuri:
+     *         sumele pot fi "convertite" doar in aceeasi valuta
+     */
+    static CursuriValutare faraCursuri() {
+        return new CursuriValutare(matriceIdentitate(), LocalDateTime.now());
+    }
+
+    /** @return {@code true} daca instantaneul are curs pentru orice pereche de valute */
+    public boolean esteComplet() {
+        return complet;
+    }
+
+    /** @return un vector nou cu 1.0 pe diagonala si 0.0 (curs nesetat) in rest */
+    static double[] matriceIdentitate() {
+        double[] m = new double[NUMAR_VALUTE * NUMAR_VALUTE];
+        for (int i = 0; i < NUMAR_VALUTE; i++) {
+            m[i * NUMAR_VALUTE + i] = 1.0;
+        }
+        return m;
+    }
+
+    static int index(Valuta din, Valuta in) {
+        return din.ordinal() * NUMAR_VALUTE + in.ordinal();
+    }
+
+    /**
+     * Completeaza perechile lipsa (cu curs 0.0) ale unei matrice de cursuri.
+     * <p>
+     * O pereche lipsa se deduce mai intai din perechea inversa ({@code 1 / curs}), apoi
+     * prin triangulare printr-o valuta intermediara (de exemplu RON): la fiecare pas se
+     * completeaza doar perechile care pot fi obtinute din cele cunoscute la pasul anterior,
+     * deci fiecare pereche primeste un drum cu cat mai putine conversii. Dintre drumurile de
+     * aceeasi lungime se alege cel cu cursul cel mai mic, astfel incat banca nu plateste
+     * niciodata mai mult decat pe un lant de cursuri publicate.
+     * </p>
+     *
+     * @param cursuri matricea, modificata pe loc
+     * @return numarul de perechi care au ramas fara curs (valute neconectate)
+     */
+    static int completeaza(double[] cursuri) {
+        for (int i = 0; i < NUMAR_VALUTE; i++) {
+            for (int j = 0; j < NUMAR_VALUTE; j++) {
+                int ij = i * NUMAR_VALUTE + j;
+                int ji = j * NUMAR_VALUTE + i;
+                if (cursuri[ij] == 0.0 && cursuri[ji] > 0.0) cursuri[ij] = 1.0 / cursuri[ji];
+            }
+        }
+
+        double[] pas = new double[cursuri.length];
+        int lipsa;
+        boolean completat;
+        do {
+            lipsa = 0;
+            completat = false;
+            System.arraycopy(cursuri, 0, pas, 0, cursuri.length);
+            for (int i = 0; i < NUMAR_VALUTE; i++) {
+                for (int j = 0; j < NUMAR_VALUTE; j++) {
+                    if (cursuri[i * NUMAR_VALUTE + j] > 0.0) continue;
+                    double cel = 0.0;
+                    for (int k = 0; k < NUMAR_VALUTE; k++) {
+                        double ik = cursuri[i * NUMAR_VALUTE + k];
+                        double kj = cursuri[k * NUMAR_VALUTE + j];
+                        if (ik > 0.0 && kj > 0.0 && (cel == 0.0 || ik * kj < cel)) cel = ik * kj;
+                    }
+                    if (cel > 0.0) {
+                        pas[i * NUMAR_VALUTE + j] = cel;
+                        completat = true;
+                    } else {
+                        lipsa++;
+                    }
+                }
+            }
+            System.arraycopy(pas, 0, cursuri, 0, cursuri.length);
+        } while (completat && lipsa > 0);
+        return lipsa;
+    }
+
+    /**
+     * @return cursul de schimb din {@code din} in {@code in}
+     * @throws IllegalStateException daca cursul nu a fost incarcat
+     */
+    public double curs(Valuta din, Valuta in) {
+        double curs = cursuri[index(din, in)];
+        if (!(curs > 0.0)) throw cursLipsa(din, in);
+        return curs;
+    }
+
+    private static IllegalStateException cursLipsa(Valuta din, Valuta in) {
+        return new IllegalStateException("Cursul " + din + " -> " + in
+                + " nu a fost incarcat; operatiile intre valute nu sunt disponibile.");
+    }
+
+    /**
+     * Converteste o suma dintr-o valuta in alta.
+     *
+     * @return suma convertita
+     */
+    public double converteste(double suma, Valuta din, Valuta in) {
+        if (!complet) return suma * curs(din, in);
+        return suma * cursuri[index(din, in)];
+    }
+
+    /**
+     * Converteste o suma in subunitati dintr-o valuta in alta, rotunjind cu
+     * {@link Bani#ROTUNJIRE_CONVERSIE}.
+     *
+     * @return suma convertita, in subunitati
+     */
+    public long convertesteBani(long suma, Valuta din, Valuta in) {
+        double curs = complet ? cursuri[index(din, in)] : curs(din, in);
+        return Bani.inmulteste(suma, curs, Bani.ROTUNJIRE_CONVERSIE);
+    }
+
+    /**
+     * Converteste un lot de sume, fiecare in valuta ei, intr-o singura valuta.
+     * <p>
+     * Sumele si valutele sunt vectori paraleli. Bucla face doar citiri din vectori si o
+     * inmultire pe element, fara apeluri si fara ramificari, deci poate fi optimizata de JIT.
+     * Daca instantaneul nu este complet, sumele sunt verificate inainte: o suma nenula intr-o
+     * valuta fara curs spre {@code tinta} opreste tot lotul.
+     * </p>
+     *
+     * @param sume sumele de convertit
+     * @param valute ordinalul {@link Valuta} al fiecarei sume
+     * @param numar cate elemente se convertesc, de la inceputul vectorilor
+     * @param tinta valuta in care se convertesc toate sumele
+     * @param rezultat vectorul in care se scriu sumele convertite (poate fi chiar {@code sume})
+     * @throws IllegalStateException daca o suma nenula nu are curs spre {@code tinta}
+     */
+    public void convertesteLot(double[] sume, int[] valute, int numar, Valuta tinta, double[] rezultat) {
+        double[] spre = cursuriSpre;
+        int baza = tinta.ordinal() * NUMAR_VALUTE;
+        if (!complet) {
+            for (int i = 0; i < numar; i++) {
+                if (sume[i] != 0.0 && !(spre[baza + valute[i]] > 0.0)) {
+                    throw cursLipsa(Valuta.dupaOrdinal(valute[i]), tinta);
+                }
+            }
+        }
+        for (int i = 0; i < numar; i++) {
+            rezultat[i] = sume[i] * spre[baza + valute[i]];
+        }
+    }
+
+    /** @return momentul in care a fost incarcat acest instantaneu */
+    public LocalDateTime getIncarcatLa() {
+        return incarcatLa;
+    }
+}
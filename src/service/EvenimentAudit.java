@@ -0,0 +1,39 @@
+package service;
+
+import java.util.function.Supplier;
+
+/**
+ * Slot refolosibil din bufferul de audit: tipul evenimentului, momentul publicarii si
+ * argumentele lui, inca neformatate.
+ * <p>
+ * Argumentele sunt pastrate pe categorii (referinte, intregi, reale), ca valorile primitive
+ * sa nu fie impachetate in obiecte. Textul se construieste abia pe firul de scriere,
+ * prin formatorul tipului de eveniment.
+ * </p>
+ */
+final class EvenimentAudit {
+
+    long timp;
+    TipEveniment tip;
+    /** Mesaj calculat abia la scriere; daca exista, inlocuieste formatorul tipului. */
+    Supplier<? extends CharSequence> mesaj;
+    Object o1, o2, o3;
+    long n1, n2, n3;
+    double r1, r2;
+
+    /** Construieste textul evenimentului. */
+    void formateaza(StringBuilder sb) {
+        if (mesaj != null) {
+            sb.append(mesaj.get());
+        } else {
+            tip.formator.formateaza(sb, this);
+        }
+    }
+
+    /** Elibereaza referintele, ca obiectele sa nu fie tinute in viata de buffer. */
+    void goleste() {
+        tip = null;
+        mesaj = null;
+        o1 = o2 = o3 = null;
+    }
+}
@@ -0,0 +1,112 @@
+package service;
+
+import model.Client;
+import model.Tranzactie;
+
+import java.util.*;
+
+/**
+ * Clasa {@code EvidentaModificari} retine entitatile modificate de la ultima salvare pe disc.
+ * <p>
+ * Firul de persistenta aduna aici fiecare client nou, fiecare cont creat, modificat sau inchis
+ * si fiecare tranzactie noua primite de la {@link Banca}. La salvare se scriu doar fisierele
+ * afectate de aceste modificari, iar fisierele neschimbate nu sunt atinse deloc.
+ * </p>
+ * <p>
+ * Clasa nu este sincronizata: este folosita doar de firul din {@link PersistentaAsincrona}.
+ * </p>
+ */
+public class EvidentaModificari {
+
+    /** Clientii creati de la ultima salvare, in ordinea crearii. */
+    private final LinkedHashMap<Integer, Client> clientiNoi = new LinkedHashMap<>();
+
+    /** Ultima stare a conturilor create sau modificate de la ultima salvare. */
+    private final LinkedHashMap<Integer, InstantaneuCont> conturiModificate = new LinkedHashMap<>();
+
+    /** Id-urile conturilor inchise de la ultima salvare. */
+    private final Set<Integer> conturiInchise = new LinkedHashSet<>();
+
+    /** Tranzactiile noi care trebuie adaugate in jurnal. */
+    private final List<Tranzactie> tranzactiiNoi = new ArrayList<>();
+
+    /**
+     * Inregistreaza un client nou.
+     *
+     * @param client clientul creat
+     */
+    public void clientNou(Client client) {
+        clientiNoi.put(client.getId(), client);
+    }
+
+    /**
+     * Inregistreaza un cont creat sau modificat (sold, valuta, dobanda).
+     * Daca acelasi cont apare de mai multe ori, se pastreaza doar ultima stare.
+     *
+     * @param cont starea contului modificat
+     */
+    public void contModificat(InstantaneuCont cont) {
+        conturiInchise.remove(cont.getId());
+        conturiModificate.put(cont.getId(), cont);
+    }
+
+    /**
+     * Inregistreaza inchiderea unui cont.
+     *
+     * @param idCont id-ul contului inchis
+     */
+    public void contInchis(int idCont) {
+        conturiModificate.remove(idCont);
+        conturiInchise.add(idCont);
+    }
+
+    /**
+     * Inregistreaza o tranzactie noua, care va fi adaugata la sfarsitul jurnalului.
+     *
+     * @param t tranzactia noua
+     */
+    public void tranzactieNoua(Tranzactie t) {
+        tranzactiiNoi.add(t);
+    }
+
+    /** @return {@code true} daca nu exista nicio modificare nesalvata */
+    public boolean esteGoala() {
+        return clientiNoi.isEmpty() && conturiModificate.isEmpty() && conturiInchise.isEmpty()
+                && tranzactiiNoi.isEmpty();
+    }
+
+    /** @return {@code true} daca fisierul de conturi trebuie actualizat */
+    public boolean conturiAfectate() {
+        return !conturiModificate.isEmpty() || !conturiInchise.isEmpty();
+    }
+
+    public Collection<Client> getClientiNoi() { return clientiNoi.values(); }
+    public Collection<InstantaneuCont> getConturiModificate() { return conturiModificate.values(); }
+    public Set<Integer> getConturiInchise() { return conturiInchise; }
+    public List<Tranzactie> getTranzactiiNoi() { return tranzactiiNoi; }
+
+    /**
+     * Goleste evidenta dupa o salvare reusita.
+     */
+    public void goleste() {
+        golesteClienti();
+        golesteConturi();
+        golesteTranzactii();
+    }
+
+    /** Uita clientii noi, dupa ce au fost scrisi. */
+    public void golesteClienti() {
+        clientiNoi.clear();
+    }
+
+    /** Uita conturile modificate si inchise, dupa ce au fost scrise. */
+    public void golesteConturi() {
+        conturiModificate.clear();
+        conturiInchise.clear();
+    }
+
+    /** Uita tranzactiile noi, dupa ce au fost scrise. */
+    public void golesteTranzactii() {
+        tranzactiiNoi.clear();
+    }
+}
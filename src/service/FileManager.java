@@ -3,11 +3,15 @@ package service;
 import model.*;
 
 import java.io.*;
+import java.nio.file.Paths;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
 
 /**
@@ -19,6 +23,7 @@ public class FileManager {
 
     private static final String CLIENTI_FILE = "data/clienti.txt";
     private static final String CONTURI_FILE = "data/conturi.txt";
+    private static final String CONTURI_BINAR_FILE = "data/conturi.dat";
     private static final String TRANZACTII_FILE = "data/tranzactii.txt";
 
 
@@ -28,8 +33,17 @@ public class FileManager {
      * @return lista de clienti
      */
     public static ArrayList<Client> incarcaClienti() {
+        return incarcaClienti(CLIENTI_FILE);
+    }
+
+    /**
+     * Incarca toti clientii dintr-un fisier cu formatul clienti.txt.
+     * @param cale calea fisierului
+     * @return lista de clienti
+     */
+    public static ArrayList<Client> incarcaClienti(String cale) {
         ArrayList<Client> clienti = new ArrayList<>();
-        try (BufferedReader br = new BufferedReader(new FileReader(CLIENTI_FILE))) {
+        try (BufferedReader br = new BufferedReader(new FileReader(cale))) {
             String linie;
             while ((linie = br.readLine()) != null) {
                 String[] c = linie.split(";");
@@ -52,35 +66,159 @@ public class FileManager {
 
 
     /**
-     * Salveaza toti clientii in fisierul clienti.txt.
-     * @param clienti lista de clienti de salvat
+     * Adauga clientii noi la sfarsitul fisierului clienti.txt, fara a rescrie clientii existenti.
+     * @param clientiNoi clientii de adaugat
+     * @throws UncheckedIOException daca scrierea esueaza
      */
-    public static void salveazaClienti(ArrayList<Client> clienti) {
-        try (PrintWriter pw = new PrintWriter(new FileWriter(CLIENTI_FILE))) {
-            for (Client c : clienti) {
+    public static void adaugaClienti(Collection<Client> clientiNoi) {
+        try (PrintWriter pw = new PrintWriter(new FileWriter(CLIENTI_FILE, true))) {
+            for (Client c : clientiNoi) {
                 pw.println(c.getId() + ";" + c.getNume() + ";" + c.getEmail() + ";" + c.getParola() );
             }
+            verificaScrierea(pw, CLIENTI_FILE);
         } catch (IOException e) {
-            System.out.println(" Eroare la scrierea fișierului clienti.txt: " + e.getMessage());
+            throw new UncheckedIOException("Eroare la scrierea fișierului clienti.txt: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * {@link PrintWriter} nu arunca exceptii la scriere; erorile se afla doar prin {@link PrintWriter#checkError()}.
+     */
+    private static void verificaScrierea(PrintWriter pw, String fisier) throws IOException {
+        if (pw.checkError()) {
+            throw new IOException("Scrierea in " + fisier + " nu a reusit.");
         }
     }
 
     /**
-     * Incarca toate conturile din fisierul conturi.txt.
+     * Salveaza doar modificarile inregistrate in evidenta.
+     * <p>
+     * Clientii noi si tranzactiile noi sunt adaugate la sfarsitul fisierelor lor, iar in
+     * fisierul binar de conturi se rescriu doar sloturile conturilor create, modificate sau
+     * inchise. Fisierele fara modificari nu sunt deschise deloc.
+     * </p>
+     * <p>
+     * Fiecare parte a evidentei este golita imediat dupa ce a fost scrisa. Daca o scriere
+     * esueaza, exceptia este propagata, iar partile nescrise raman in evidenta pentru o
+     * incercare ulterioara.
+     * </p>
+     * @param modificari evidenta modificarilor de la ultima salvare
+     * @param fisierConturi fisierul binar de conturi
+     */
+    public static void salveazaModificari(EvidentaModificari modificari, FisierConturiBinar fisierConturi) {
+        if (!modificari.getClientiNoi().isEmpty()) {
+            adaugaClienti(modificari.getClientiNoi());
+            modificari.golesteClienti();
+        }
+        if (modificari.conturiAfectate()) {
+            try {
+                for (Integer id : modificari.getConturiInchise()) {
+                    fisierConturi.sterge(id);
+                }
+                for (InstantaneuCont c : modificari.getConturiModificate()) {
+                    fisierConturi.scrie(c);
+                }
+                fisierConturi.forteaza();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Eroare la scrierea fișierului conturi.dat: " + e.getMessage(), e);
+            }
+            modificari.golesteConturi();
+        }
+        if (!modificari.getTranzactiiNoi().isEmpty()) {
+            adaugaTranzactiiInJurnal(modificari.getTranzactiiNoi());
+            modificari.golesteTranzactii();
+        }
+    }
+
+    /**
+     * Deschide fisierul binar de conturi conturi.dat, creandu-l daca nu exista.
+     * @return fisierul binar de conturi
+     */
+    public static FisierConturiBinar deschideFisierConturi() {
+        try {
+            return FisierConturiBinar.deschide(Paths.get(CONTURI_BINAR_FILE));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Fisierul conturi.dat nu poate fi deschis", e);
+        }
+    }
+
+    /**
+     * Incarca toate conturile din fisierul binar conturi.dat.
+     * <p>
+     * Daca fisierul binar este nou (prima pornire dupa trecerea la formatul binar), conturile
+     * sunt citite o singura data din conturi.txt si copiate in fisierul binar. Dupa aceea,
+     * conturi.txt nu mai este citit, chiar daca toate conturile au fost inchise.
+     * </p>
      * @param clienti lista de clienti existenti
+     * @param fisierConturi fisierul binar de conturi
      * @return harta cu id-ul contului ca si cheia si obiectul ContBancar ca valoare
      */
-    public static HashMap<Integer, ContBancar> incarcaConturi(ArrayList<Client> clienti) {
+    public static HashMap<Integer, ContBancar> incarcaConturi(List<Client> clienti,
+                                                             FisierConturiBinar fisierConturi) {
+        if (fisierConturi.esteNou()) {
+            HashMap<Integer, ContBancar> conturi = incarcaConturi(clienti);
+            try {
+                for (ContBancar c : conturi.values()) {
+                    fisierConturi.scrie(InstantaneuCont.din(c));
+                }
+                fisierConturi.forteaza();
+            } catch (IOException e) {
+                System.out.println(" Eroare la scrierea fișierului conturi.dat: " + e.getMessage());
+            }
+            return conturi;
+        }
+
+        HartaInt<Client> clientiDupaId = indexeazaClienti(clienti);
+
+        List<InstantaneuCont> instantanee = fisierConturi.citesteToate();
+        HashMap<Integer, ContBancar> conturi = new HashMap<>(instantanee.size() * 2);
+        for (InstantaneuCont c : instantanee) {
+            Client client = clientiDupaId.get(c.getIdClient());
+            ContBancar cont;
+            if (InstantaneuCont.TIP_ECONOMII.equals(c.getTip())) {
+                cont = new ContEconomii(c.getId(), c.getSold(), client, c.getValuta(), c.getCreationDate(),
+                        c.getTipEconomii(), c.getDobandaAcumulata());
+            } else if (InstantaneuCont.TIP_CREDIT.equals(c.getTip())) {
+                cont = new ContCredit(c.getId(), c.getSold(), client, c.getValuta(), c.getCreationDate());
+            } else {
+                cont = new ContCurent(c.getId(), c.getSold(), client, c.getValuta(), c.getCreationDate());
+            }
+            conturi.put(c.getId(), cont);
+        }
+        return conturi;
+    }
+
+    /**
+     * Incarca toate conturile din fisierul text conturi.txt.
+     * @param clienti lista de clienti existenti
+     * @return harta cu id-ul contului ca si cheia si obiectul ContBancar ca valoare
+     */
+    public static HashMap<Integer, ContBancar> incarcaConturi(List<Client> clienti) {
+        return incarcaConturi(clienti, CONTURI_FILE);
+    }
+
+    /**
+     * Incarca toate conturile dintr-un fisier text cu formatul conturi.txt.
+     * <p>
+     * Proprietarul fiecarui cont este rezolvat printr-un index construit o singura data,
+     * deci incarcarea este liniara in numarul de clienti si conturi.
+     * </p>
+     * @param clienti lista de clienti existenti
+     * @param cale calea fisierului
+     * @return harta cu id-ul contului ca si cheia si obiectul ContBancar ca valoare
+     */
+    public static HashMap<Integer, ContBancar> incarcaConturi(List<Client> clienti, String cale) {
+        HartaInt<Client> clientiDupaId = indexeazaClienti(clienti);
         HashMap<Integer, ContBancar> conturi = new HashMap<>();
-        try (BufferedReader br = new BufferedReader(new FileReader(CONTURI_FILE))) {
+        try (BufferedReader br = new BufferedReader(new FileReader(cale))) {
             String linie;
             while ((linie = br.readLine()) != null) {
                 String[] c = linie.split(";");
                 if (c.length >= 5) {
                     int id = Integer.parseInt(c[0]);
-                    double sold = Double.parseDouble(c[1]);
+                    long sold = Bani.parseaza(c[1]);
                     int idClient = Integer.parseInt(c[2]);
-                    String valuta = c[3];
+                    Valuta valuta = Valuta.din(c[3]);
                     String tip = c[4];
 
                     LocalDateTime creationDate = LocalDateTime.now();
@@ -89,19 +227,19 @@ public class FileManager {
                     }
 
                     ContBancar cont = null;
-                    Client client = clienti.stream().filter(cl -> cl.getId() == idClient).findFirst().orElse(null);
+                    Client client = clientiDupaId.get(idClient);
 
                     if ("CURENT".equalsIgnoreCase(tip)) {
                         cont = new ContCurent(id, sold, client, valuta, creationDate);
                     } else if ("ECONOMII".equalsIgnoreCase(tip)) {
                         // citim tipEconomii si dobandaAcumulata
                         ContEconomii.TipEconomii tipEconomii = ContEconomii.TipEconomii.ECONOMII;
-                        double dobandaAcumulata = 0.0;
+                        long dobandaAcumulata = 0;
                         if (c.length > 6 && c[6] != null && !c[6].isEmpty()) {
                             tipEconomii = ContEconomii.TipEconomii.valueOf(c[6]);
                         }
                         if (c.length > 7 && c[7] != null && !c[7].isEmpty()) {
-                            dobandaAcumulata = Double.parseDouble(c[7]);
+                            dobandaAcumulata = Bani.parseaza(c[7]);
                         }
                         cont = new ContEconomii(id, sold, client, valuta, creationDate, tipEconomii, dobandaAcumulata);
                     } else if ("CREDIT".equalsIgnoreCase(tip)) {
@@ -119,42 +257,27 @@ public class FileManager {
     }
 
     /**
-     * Salveaza toate conturile in fisierul conturi.txt.
-     * @param conturi harta cu conturi de salvat
+     * Construieste indexul id -> client folosit la rezolvarea proprietarilor conturilor.
+     * La id-uri duplicate se pastreaza primul client, ca la cautarea secventiala.
      */
-    public static void salveazaConturi(HashMap<Integer, ContBancar> conturi) {
-        try (PrintWriter pw = new PrintWriter(new FileWriter(CONTURI_FILE))) {
-            for (ContBancar c : conturi.values()) {
-                String tip = c instanceof ContCurent ? "CURENT"
-                        : c instanceof ContEconomii ? "ECONOMII" : "CREDIT";
-
-                String creation = c.getCreationDate().toString();
-
-                if (c instanceof ContEconomii) {
-                    ContEconomii ce = (ContEconomii) c;
-                    pw.println(c.getId() + ";" + c.getSold() + ";" + c.getClient().getId() + ";" +
-                            c.getValuta() + ";" + tip + ";" + creation + ";" +
-                            ce.getTip().name() + ";" + ce.getDobandaAcumulata());
-                } else {
-
-                    pw.println(c.getId() + ";" + c.getSold() + ";" + c.getClient().getId() + ";" +
-                            c.getValuta() + ";" + tip + ";" + creation + ";;0.0");
-                }
-            }
-
-        } catch (IOException e) {
-            System.out.println(" Eroare la scrierea fișierului conturi.txt: " + e.getMessage());
-        }
+    private static HartaInt<Client> indexeazaClienti(List<Client> clienti) {
+        HartaInt<Client> clientiDupaId = new HartaInt<>(clienti.size());
+        for (Client cl : clienti) clientiDupaId.putIfAbsent(cl.getId(), cl);
+        return clientiDupaId;
     }
 
-
     /**
      * Incarca toate tranzactiile din fisierul tranzactii.txt.
+     * <p>
+     * Fiecare tranzactie isi pastreaza momentul salvat, iar tranzactiile conturilor inchise intre
+     * timp sunt pastrate. Liniile vechi, fara coloana de valuta, primesc valuta contului sursa,
+     * iar daca acesta nu mai exista, RON.
+     * </p>
      * @param conturi harta cu conturile existente
-     * @return lista de tranzactii
+     * @return jurnalul tranzactiilor
      */
-    public static ArrayList<Tranzactie> incarcaTranzactii(HashMap<Integer, ContBancar> conturi) {
-        ArrayList<Tranzactie> tranzactii = new ArrayList<>();
+    public static JurnalTranzactii incarcaTranzactii(Map<Integer, ContBancar> conturi) {
+        JurnalTranzactii tranzactii = new JurnalTranzactii();
         File file = new File(TRANZACTII_FILE);
         if (!file.exists()) return tranzactii;
 
@@ -169,15 +292,18 @@ public class FileManager {
                 int id = Integer.parseInt(parts[0]);
                 int idSursa = Integer.parseInt(parts[1]);
                 int idDest = Integer.parseInt(parts[2]);
-                double suma = Double.parseDouble(parts[3]);
-                LocalDateTime data = LocalDateTime.parse(parts[4]);
+                long suma = Bani.parseaza(parts[3]);
+                long moment = citesteMoment(parts[4]);
 
-                ContBancar sursa = conturi.get(idSursa);
-                ContBancar destinatie = conturi.get(idDest);
-
-                if (sursa != null && destinatie != null) {
-                    tranzactii.add(new Tranzactie(id, sursa, destinatie, suma));
+                Valuta valuta;
+                if (parts.length > 5) {
+                    valuta = Valuta.din(parts[5]);
+                } else {
+                    ContBancar sursa = conturi.get(idSursa);
+                    valuta = sursa != null ? sursa.getValuta() : Valuta.RON;
                 }
+
+                tranzactii.adauga(new Tranzactie(id, idSursa, idDest, suma, valuta, moment));
             }
         } catch (Exception e) {
             e.printStackTrace();
@@ -186,23 +312,54 @@ public class FileManager {
     }
 
     /**
-     * Salveaza toate tranzactiile in fisierul tranzactii.txt.
-     * @param tranzactii lista de tranzactii de salvat
+     * Citeste momentul unei tranzactii din jurnal. Liniile noi contin un moment UTC
+     * ({@code 2025-10-26T01:30:00Z}), care nu depinde de fusul orar al masinii. Liniile vechi
+     * contin o data locala, fara fus orar, interpretata in fusul orar curent.
+     *
+     * @param text momentul, asa cum apare in fisier
+     * @return milisecunde epoch
      */
-    public static void salveazaTranzactii(List<Tranzactie> tranzactii) {
-        try (PrintWriter pw = new PrintWriter(new FileWriter(TRANZACTII_FILE))) {
+    private static long citesteMoment(String text) {
+        if (text.endsWith("Z")) {
+            return Instant.parse(text).toEpochMilli();
+        }
+        return Tranzactie.momentDin(LocalDateTime.parse(text));
+    }
+
+    /**
+     * Adauga tranzactiile primite la sfarsitul jurnalului tranzactii.txt.
+     * <p>
+     * Fisierul este tratat ca un jurnal append-only: o tranzactie noua costa o singura
+     * linie scrisa, indiferent de cat de mare este istoricul.
+     * </p>
+     * @param tranzactii tranzactiile de adaugat
+     * @throws UncheckedIOException daca scrierea esueaza
+     */
+    public static void adaugaTranzactiiInJurnal(List<Tranzactie> tranzactii) {
+        try (PrintWriter pw = new PrintWriter(new BufferedWriter(new FileWriter(TRANZACTII_FILE, true)))) {
             for (Tranzactie t : tranzactii) {
-                pw.println(t.getId() + ";" +
-                        t.getSursa().getId() + ";" +
-                        t.getDestinatie().getId() + ";" +
-                        t.getSuma() + ";" +
-                        t.getData());
+                pw.println(formateazaTranzactie(t));
             }
-        } catch (Exception e) {
-            System.out.println("Eroare la salvarea tranzactiilor: " + e.getMessage());
+            verificaScrierea(pw, TRANZACTII_FILE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Eroare la adaugarea tranzactiilor in jurnal: " + e.getMessage(), e);
         }
     }
 
+    /**
+     * Transforma o tranzactie in linia de text folosita in tranzactii.txt.
+     * @param t tranzactia de formatat
+     * @return linia corespunzatoare tranzactiei
+     */
+    private static String formateazaTranzactie(Tranzactie t) {
+        return t.getId() + ";" +
+                t.getIdSursa() + ";" +
+                t.getIdDestinatie() + ";" +
+                Bani.formateaza(t.getSuma()) + ";" +
+                Instant.ofEpochMilli(t.getMoment()) + ";" +
+                t.getValuta();
+    }
+
     /**
      * Citeste ultima data la care s-a aplicat dobanda pentru conturile de economii.
      * @return data ultimei dobanzi sau LocalDate.MIN daca fisierul nu exista
@@ -0,0 +1,257 @@
+package service;
+
+import model.ContEconomii;
+import model.Valuta;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Clasa {@code FisierConturiBinar} pastreaza conturile intr-un fisier binar cu inregistrari
+ * de lungime fixa, accesat printr-un {@link MappedByteBuffer}.
+ * <p>
+ * Fiecare cont ocupa un slot de {@value #DIMENSIUNE_INREGISTRARE} octeti, astfel incat
+ * actualizarea unui sold este o scriere la un offset cunoscut, fara a rescrie restul fisierului.
+ * Sloturile conturilor inchise sunt marcate libere si refolosite la crearea conturilor noi.
+ * </p>
+ * <p>
+ * Structura unui slot (offset in octeti):
+ * <pre>
+ *  0  stare          byte   (0 = liber, 1 = activ)
+ *  1  tip cont       byte   (0 = CURENT, 1 = ECONOMII, 2 = CREDIT)
+ *  2  tip economii   byte   (0 = nesetat, 1 = BONUS, 2 = ECONOMII)
+ *  3  valuta         byte   (ordinalul {@link Valuta})
+ *  8  id cont        int
+ * 12  id client      int
+ * 16  sold           long, in subunitati (vezi {@link model.Bani})
+ * 24  dobanda acum.  long, in subunitati
+ * 32  creare (sec.)  long, secunde epoch UTC
+ * 40  creare (nano)  int
+ * </pre>
+ * Fisierul incepe cu un antet de {@value #DIMENSIUNE_ANTET} octeti: semnatura, versiunea si
+ * numarul de sloturi folosite.
+ * </p>
+ * <p>
+ * Clasa nu este sincronizata: dupa incarcare este folosita doar de firul de persistenta.
+ * </p>
+ */
+public class FisierConturiBinar implements AutoCloseable {
+
+    /** Semnatura fisierului ("CNTB"). */
+    private static final int SEMNATURA = 0x434E5442;
+    private static final int VERSIUNE = 1;
+
+    static final int DIMENSIUNE_ANTET = 32;
+    static final int DIMENSIUNE_INREGISTRARE = 64;
+
+    private static final int CAPACITATE_INITIALA = 1024;
+
+    private static final int OFF_STARE = 0;
+    private static final int OFF_TIP = 1;
+    private static final int OFF_TIP_ECONOMII = 2;
+    private static final int OFF_VALUTA = 3;
+    private static final int OFF_ID = 8;
+    private static final int OFF_ID_CLIENT = 12;
+    private static final int OFF_SOLD = 16;
+    private static final int OFF_DOBANDA = 24;
+    private static final int OFF_CREARE_SEC = 32;
+    private static final int OFF_CREARE_NANO = 40;
+
+    private static final String[] TIPURI = {
+            InstantaneuCont.TIP_CURENT, InstantaneuCont.TIP_ECONOMII, InstantaneuCont.TIP_CREDIT
+    };
+
+    private final FileChannel canal;
+    private MappedByteBuffer buffer;
+    private int capacitate;
+    private int sloturiFolosite;
+
+    /** Slotul fiecarui cont activ, dupa id-ul contului. */
+    private final HashMap<Integer, Integer> slotDupaId = new HashMap<>();
+
+    /** Sloturile eliberate prin inchiderea conturilor. */
+    private final ArrayDeque<Integer> sloturiLibere = new ArrayDeque<>();
+
+    private FisierConturiBinar(FileChannel canal) {
+        this.canal = canal;
+    }
+
+    /**
+     * Deschide (sau creeaza) fisierul binar de conturi si construieste indexul id -> slot.
+     *
+     * @param cale calea fisierului
+     * @return fisierul deschis
+     * @throws IOException daca fisierul nu poate fi deschis sau are un format necunoscut
+     */
+    public static FisierConturiBinar deschide(Path cale) throws IOException {
+        FileChannel canal = FileChannel.open(cale,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        FisierConturiBinar f = new FisierConturiBinar(canal);
+        try {
+            f.initializeaza();
+        } catch (IOException | RuntimeException e) {
+            canal.close();
+            throw e;
+        }
+        return f;
+    }
+
+    private void initializeaza() throws IOException {
+        long dimensiune = canal.size();
+        if (dimensiune == 0) {
+            mapeaza(CAPACITATE_INITIALA);
+            buffer.putInt(0, SEMNATURA);
+            buffer.putInt(4, VERSIUNE);
+            buffer.putInt(8, 0);
+            return;
+        }
+
+        int capacitateFisier = (int) ((dimensiune - DIMENSIUNE_ANTET) / DIMENSIUNE_INREGISTRARE);
+        mapeaza(Math.max(capacitateFisier, CAPACITATE_INITIALA));
+        if (buffer.getInt(0) != SEMNATURA || buffer.getInt(4) != VERSIUNE) {
+            throw new IOException("Format necunoscut pentru fisierul de conturi.");
+        }
+        sloturiFolosite = buffer.getInt(8);
+
+        for (int slot = 0; slot < sloturiFolosite; slot++) {
+            int baza = offset(slot);
+            if (buffer.get(baza + OFF_STARE) == 1) {
+                slotDupaId.put(buffer.getInt(baza + OFF_ID), slot);
+            } else {
+                sloturiLibere.add(slot);
+            }
+        }
+    }
+
+    private void mapeaza(int capacitateNoua) throws IOException {
+        buffer = canal.map(FileChannel.MapMode.READ_WRITE, 0,
+                DIMENSIUNE_ANTET + (long) capacitateNoua * DIMENSIUNE_INREGISTRARE);
+        capacitate = capacitateNoua;
+    }
+
+    private static int offset(int slot) {
+        return DIMENSIUNE_ANTET + slot * DIMENSIUNE_INREGISTRARE;
+    }
+
+    /**
+     * @return {@code true} daca in fisier nu a fost scris niciodata un cont (de exemplu, daca
+     *         tocmai a fost creat). Un fisier ale carui conturi au fost toate inchise nu este nou.
+     */
+    public boolean esteNou() {
+        return sloturiFolosite == 0;
+    }
+
+    /**
+     * Citeste toate conturile active din fisier.
+     *
+     * @return instantaneele conturilor active
+     */
+    public List<InstantaneuCont> citesteToate() {
+        List<InstantaneuCont> conturi = new ArrayList<>(slotDupaId.size());
+        for (int slot = 0; slot < sloturiFolosite; slot++) {
+            int baza = offset(slot);
+            if (buffer.get(baza + OFF_STARE) == 1) {
+                conturi.add(citeste(baza));
+            }
+        }
+        return conturi;
+    }
+
+    private InstantaneuCont citeste(int baza) {
+        byte tipEconomii = buffer.get(baza + OFF_TIP_ECONOMII);
+        LocalDateTime creare = LocalDateTime.ofEpochSecond(
+                buffer.getLong(baza + OFF_CREARE_SEC), buffer.getInt(baza + OFF_CREARE_NANO), ZoneOffset.UTC);
+
+        return new InstantaneuCont(
+                buffer.getInt(baza + OFF_ID),
+                buffer.getLong(baza + OFF_SOLD),
+                buffer.getInt(baza + OFF_ID_CLIENT),
+                Valuta.dupaOrdinal(buffer.get(baza + OFF_VALUTA)),
+                TIPURI[buffer.get(baza + OFF_TIP)],
+                creare,
+                tipEconomii == 0 ? null : ContEconomii.TipEconomii.values()[tipEconomii - 1],
+                buffer.getLong(baza + OFF_DOBANDA));
+    }
+
+    /**
+     * Scrie starea unui cont in slotul lui. Un cont nou primeste un slot liber
+     * sau un slot nou la sfarsitul fisierului.
+     *
+     * @param c starea contului
+     * @throws IOException daca fisierul nu poate fi extins
+     */
+    public void scrie(InstantaneuCont c) throws IOException {
+        Integer slot = slotDupaId.get(c.getId());
+        if (slot == null) {
+            slot = alocaSlot();
+            slotDupaId.put(c.getId(), slot);
+        }
+
+        int baza = offset(slot);
+        buffer.put(baza + OFF_VALUTA, (byte) c.getValuta().ordinal());
+        buffer.put(baza + OFF_TIP, (byte) indexTip(c.getTip()));
+        buffer.put(baza + OFF_TIP_ECONOMII,
+                (byte) (c.getTipEconomii() == null ? 0 : c.getTipEconomii().ordinal() + 1));
+        buffer.putInt(baza + OFF_ID, c.getId());
+        buffer.putInt(baza + OFF_ID_CLIENT, c.getIdClient());
+        buffer.putLong(baza + OFF_SOLD, c.getSold());
+        buffer.putLong(baza + OFF_DOBANDA, c.getDobandaAcumulata());
+        buffer.putLong(baza + OFF_CREARE_SEC, c.getCreationDate().toEpochSecond(ZoneOffset.UTC));
+        buffer.putInt(baza + OFF_CREARE_NANO, c.getCreationDate().getNano());
+        // Starea se scrie ultima, dupa ce restul inregistrarii este complet
+        buffer.put(baza + OFF_STARE, (byte) 1);
+    }
+
+    /**
+     * Marcheaza slotul unui cont inchis ca liber.
+     *
+     * @param idCont id-ul contului inchis
+     */
+    public void sterge(int idCont) {
+        Integer slot = slotDupaId.remove(idCont);
+        if (slot == null) return;
+        buffer.put(offset(slot) + OFF_STARE, (byte) 0);
+        sloturiLibere.add(slot);
+    }
+
+    /**
+     * Forteaza scrierea pe disc a paginilor modificate.
+     */
+    public void forteaza() {
+        buffer.force();
+    }
+
+    private int alocaSlot() throws IOException {
+        Integer liber = sloturiLibere.poll();
+        if (liber != null) return liber;
+
+        if (sloturiFolosite == capacitate) {
+            mapeaza(capacitate * 2);
+        }
+        int slot = sloturiFolosite++;
+        buffer.putInt(8, sloturiFolosite);
+        return slot;
+    }
+
+    private static int indexTip(String tip) {
+        for (int i = 0; i < TIPURI.length; i++) {
+            if (TIPURI[i].equals(tip)) return i;
+        }
+        throw new IllegalArgumentException("Tip de cont necunoscut: " + tip);
+    }
+
+    @Override
+    public void close() throws IOException {
+        forteaza();
+        canal.close();
+    }
+}
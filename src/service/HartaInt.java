@@ -0,0 +1,134 @@
+package service;
+
+import java.util.Arrays;
+
+/**
+ * Clasa {@code HartaInt} este o harta de la chei {@code int} la obiecte, cu adresare deschisa.
+ * <p>
+ * Cheile sunt tinute intr-un vector de primitive, deci cautarea nu creeaza obiecte {@link Integer}
+ * si nu urmareste liste inlantuite. Este folosita la incarcare pentru a rezolva in O(1)
+ * referintele dupa id (de exemplu clientul fiecarui cont).
+ * </p>
+ * <p>
+ * Harta nu suporta stergeri si nu este sincronizata.
+ * </p>
+ *
+ * @param <V> tipul valorilor
+ */
+public class HartaInt<V> {
+
+    private static final float FACTOR_INCARCARE = 0.5f;
+
+    private int[] chei;
+    private Object[] valori;
+    private int dimensiune;
+    private int masca;
+
+    /**
+     * Creeaza o harta dimensionata pentru numarul estimat de elemente.
+     *
+     * @param capacitateEstimata numarul de elemente asteptat
+     */
+    public HartaInt(int capacitateEstimata) {
+        int capacitate = Integer.highestOneBit(Math.max(4, (int) (capacitateEstimata / FACTOR_INCARCARE)) - 1) << 1;
+        aloca(capacitate);
+    }
+
+    private void aloca(int capacitate) {
+        chei = new int[capacitate];
+        valori = new Object[capacitate];
+        masca = capacitate - 1;
+    }
+
+    /** Amesteca bitii cheii, pentru ca id-urile consecutive sa nu formeze grupuri. */
+    private static int amesteca(int cheie) {
+        int h = cheie * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Asociaza o valoare unei chei. Daca cheia exista deja, valoarea este inlocuita.
+     *
+     * @param cheie cheia
+     * @param valoare valoarea (nu poate fi {@code null})
+     */
+    public void put(int cheie, V valoare) {
+        if (valoare == null) throw new IllegalArgumentException("Valoarea nu poate fi null.");
+        if (dimensiune + 1 > chei.length * FACTOR_INCARCARE) {
+            mareste();
+        }
+        int i = amesteca(cheie) & masca;
+        while (valori[i] != null) {
+            if (chei[i] == cheie) {
+                valori[i] = valoare;
+                return;
+            }
+            i = (i + 1) & masca;
+        }
+        chei[i] = cheie;
+        valori[i] = valoare;
+        dimensiune++;
+    }
+
+    /**
+     * Asociaza o valoare unei chei doar daca cheia nu exista deja.
+     *
+     * @param cheie cheia
+     * @param valoare valoarea (nu poate fi {@code null})
+     */
+    public void putIfAbsent(int cheie, V valoare) {
+        if (get(cheie) == null) put(cheie, valoare);
+    }
+
+    /**
+     * Returneaza valoarea asociata cheii.
+     *
+     * @param cheie cheia cautata
+     * @return valoarea sau {@code null} daca cheia nu exista
+     */
+    @SuppressWarnings("unchecked")
+    public V get(int cheie) {
+        int i = amesteca(cheie) & masca;
+        Object v;
+        while ((v = valori[i]) != null) {
+            if (chei[i] == cheie) return (V) v;
+            i = (i + 1) & masca;
+        }
+        return null;
+    }
+
+    /** Primeste perechile cheie-valoare ale hartii. */
+    @FunctionalInterface
+    public interface ConsumatorIntrare<V> {
+        void accepta(int cheie, V valoare);
+    }
+
+    /**
+     * Parcurge toate perechile din harta, fara a impacheta cheile.
+     *
+     * @param consumator primeste fiecare pereche
+     */
+    @SuppressWarnings("unchecked")
+    public void pentruFiecare(ConsumatorIntrare<? super V> consumator) {
+        for (int i = 0; i < valori.length; i++) {
+            if (valori[i] != null) consumator.accepta(chei[i], (V) valori[i]);
+        }
+    }
+
+    /** @return numarul de chei din harta */
+    public int size() {
+        return dimensiune;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void mareste() {
+        int[] cheiVechi = chei;
+        Object[] valoriVechi = valori;
+        aloca(chei.length * 2);
+        dimensiune = 0;
+        for (int i = 0; i < cheiVechi.length; i++) {
+            if (valoriVechi[i] != null) put(cheiVechi[i], (V) valoriVechi[i]);
+        }
+        Arrays.fill(valoriVechi, null);
+    }
+}
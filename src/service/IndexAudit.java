@@ -0,0 +1,237 @@
+package service;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Clasa {@code IndexAudit} este indexul inversat al jurnalului de audit: pentru fiecare email,
+ * id de cont si tip de eveniment retine lista pozitiilor liniilor care il contin.
+ * <p>
+ * O pozitie este un singur {@code long} care codifica ziua segmentului, numarul segmentului
+ * in acea zi si offsetul liniei in textul necomprimat al segmentului. Ordinea numerica a
+ * pozitiilor este deci ordinea cronologica din jurnal, iar listele sunt mereu sortate:
+ * intersectia lor se face prin cautare binara, fara a citi jurnalul.
+ * </p>
+ * <p>
+ * Evenimentele noi sunt adaugate de firul de scriere; segmentele mai vechi sunt incarcate
+ * separat, la pornire, si puse in fata listelor cand incarcarea se termina.
+ * Accesul este protejat de un lacat de citire/scriere.
+ * </p>
+ */
+final class IndexAudit {
+
+    /** Prima zi care poate fi codificata intr-o pozitie. */
+    private static final long ZI_START = LocalDate.of(2020, 1, 1).toEpochDay();
+    private static final int BITI_OFFSET = 37;
+    private static final int BITI_NUMAR = 10;
+    private static final int BITI_ZI = 16;
+
+    private final ReentrantReadWriteLock lacat = new ReentrantReadWriteLock();
+    private final Map<String, ListaLong> dupaEmail = new HashMap<>();
+    private final HartaInt<ListaLong> dupaCont = new HartaInt<>(1024);
+    private final ListaLong[] dupaTip = new ListaLong[TipEveniment.values().length];
+    private final CountDownLatch incarcat = new CountDownLatch(1);
+
+    /**
+     * Codifica pozitia unei linii.
+     *
+     * @return pozitia sau -1 daca segmentul sau offsetul nu pot fi codificate
+     */
+    static long pozitie(LocalDate zi, int numar, long offset) {
+        long z = zi.toEpochDay() - ZI_START;
+        if (z < 0 || z >= (1L << BITI_ZI) || numar < 0 || numar >= (1 << BITI_NUMAR)
+                || offset < 0 || offset >= (1L << BITI_OFFSET)) {
+            return -1;
+        }
+        return (z << (BITI_NUMAR + BITI_OFFSET)) | ((long) numar << BITI_OFFSET) | offset;
+    }
+
+    /**
+     * @return cea mai mica pozitie posibila din ziua data, limitata la intervalul codificabil
+     */
+    static long primaPozitie(LocalDate zi) {
+        long z = zi.toEpochDay() - ZI_START;
+        if (z < 0) return 0;
+        if (z >= (1L << BITI_ZI)) return Long.MAX_VALUE;
+        return z << (BITI_NUMAR + BITI_OFFSET);
+    }
+
+    static LocalDate zi(long pozitie) {
+        return LocalDate.ofEpochDay(ZI_START + (pozitie >>> (BITI_NUMAR + BITI_OFFSET)));
+    }
+
+    static int numar(long pozitie) {
+        return (int) ((pozitie >>> BITI_OFFSET) & ((1 << BITI_NUMAR) - 1));
+    }
+
+    static long offset(long pozitie) {
+        return pozitie & ((1L << BITI_OFFSET) - 1);
+    }
+
+    static String cheieEmail(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Adauga o linie in index. Pozitiile trebuie adaugate in ordine crescatoare.
+     */
+    void adauga(long pozitie, TipEveniment tip, String email, int cont, int contDestinatie) {
+        lacat.writeLock().lock();
+        try {
+            adaugaFaraBlocare(pozitie, tip, email, cont, contDestinatie);
+        } finally {
+            lacat.writeLock().unlock();
+        }
+    }
+
+    /** Adauga un lot de linii sub o singura blocare. */
+    void adauga(long[] pozitii, TipEveniment[] tipuri, String[] emailuri, int[] conturi, int[] destinatii, int numar) {
+        lacat.writeLock().lock();
+        try {
+            for (int i = 0; i < numar; i++) {
+                adaugaFaraBlocare(pozitii[i], tipuri[i], emailuri[i], conturi[i], destinatii[i]);
+            }
+        } finally {
+            lacat.writeLock().unlock();
+        }
+    }
+
+    private void adaugaFaraBlocare(long pozitie, TipEveniment tip, String email, int cont, int contDestinatie) {
+        if (pozitie < 0 || tip == null) return;
+        ListaLong lista = dupaTip[tip.ordinal()];
+        if (lista == null) dupaTip[tip.ordinal()] = lista = new ListaLong();
+        lista.adauga(pozitie);
+        if (email != null) {
+            dupaEmail.computeIfAbsent(cheieEmail(email), k -> new ListaLong(4)).adauga(pozitie);
+        }
+        if (cont >= 0) adaugaCont(cont, pozitie);
+        if (contDestinatie >= 0 && contDestinatie != cont) adaugaCont(contDestinatie, pozitie);
+    }
+
+    private void adaugaCont(int cont, long pozitie) {
+        ListaLong lista = dupaCont.get(cont);
+        if (lista == null) dupaCont.put(cont, lista = new ListaLong(4));
+        lista.adauga(pozitie);
+    }
+
+    /**
+     * Pune in fata listelor acestui index pozitiile unui index construit din segmentele
+     * mai vechi si marcheaza indexul ca fiind complet.
+     */
+    void adaugaIstoric(IndexAudit istoric) {
+        lacat.writeLock().lock();
+        try {
+            for (Map.Entry<String, ListaLong> e : istoric.dupaEmail.entrySet()) {
+                ListaLong lista = dupaEmail.get(e.getKey());
+                if (lista == null) dupaEmail.put(e.getKey(), e.getValue());
+                else lista.adaugaLaInceput(e.getValue());
+            }
+            istoric.dupaCont.pentruFiecare((cont, vechi) -> {
+                ListaLong lista = dupaCont.get(cont);
+                if (lista == null) dupaCont.put(cont, vechi);
+                else lista.adaugaLaInceput(vechi);
+            });
+            for (int i = 0; i < dupaTip.length; i++) {
+                ListaLong vechi = istoric.dupaTip[i];
+                if (vechi == null) continue;
+                if (dupaTip[i] == null) dupaTip[i] = vechi;
+                else dupaTip[i].adaugaLaInceput(vechi);
+            }
+        } finally {
+            lacat.writeLock().unlock();
+        }
+    }
+
+    /** Marcheaza incarcarea segmentelor vechi ca terminata (cu sau fara succes). */
+    void incarcareTerminata() {
+        incarcat.countDown();
+    }
+
+    /** Asteapta pana cand si segmentele vechi sunt in index. */
+    void asteaptaIncarcarea() throws InterruptedException {
+        incarcat.await();
+    }
+
+    /**
+     * Cauta liniile care indeplinesc toate criteriile date.
+     *
+     * @param email emailul cautat sau {@code null}
+     * @param cont id-ul contului cautat sau -1
+     * @param tipuri tipurile acceptate (oricare dintre ele) sau {@code null}
+     * @return pozitiile liniilor, in ordine cronologica
+     */
+    long[] cauta(String email, int cont, TipEveniment[] tipuri) {
+        lacat.readLock().lock();
+        try {
+            // Se porneste de la cea mai scurta lista; celelalte criterii doar filtreaza,
+            // prin cautare binara in listele lor
+            ListaLong[] criterii = new ListaLong[2];
+            int n = 0;
+            if (email != null) {
+                ListaLong l = dupaEmail.get(cheieEmail(email));
+                if (l == null) return new long[0];
+                criterii[n++] = l;
+            }
+            if (cont >= 0) {
+                ListaLong l = dupaCont.get(cont);
+                if (l == null) return new long[0];
+                criterii[n++] = l;
+            }
+            if (n == 2 && criterii[1].size() < criterii[0].size()) {
+                ListaLong t = criterii[0];
+                criterii[0] = criterii[1];
+                criterii[1] = t;
+            }
+
+            long[] rezultat;
+            if (n == 0) {
+                if (tipuri == null) return new long[0];
+                rezultat = new long[0];
+                for (TipEveniment tip : tipuri) rezultat = reuneste(rezultat, dupaTip[tip.ordinal()]);
+                return rezultat;
+            }
+
+            rezultat = new long[criterii[0].size()];
+            int gasite = 0;
+            for (int i = 0; i < criterii[0].size(); i++) {
+                long pozitie = criterii[0].get(i);
+                if (n == 2 && !criterii[1].contine(pozitie)) continue;
+                if (tipuri != null && !areTip(pozitie, tipuri)) continue;
+                rezultat[gasite++] = pozitie;
+            }
+            return Arrays.copyOf(rezultat, gasite);
+        } finally {
+            lacat.readLock().unlock();
+        }
+    }
+
+    private boolean areTip(long pozitie, TipEveniment[] tipuri) {
+        for (TipEveniment tip : tipuri) {
+            ListaLong lista = dupaTip[tip.ordinal()];
+            if (lista != null && lista.contine(pozitie)) return true;
+        }
+        return false;
+    }
+
+    /** Reuniunea a doua liste sortate. */
+    private static long[] reuneste(long[] a, ListaLong b) {
+        if (b == null) return a;
+        long[] rezultat = new long[a.length + b.size()];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length && j < b.size()) {
+            long x = a[i];
+            long y = b.get(j);
+            if (x < y) { rezultat[n++] = x; i++; }
+            else if (y < x) { rezultat[n++] = y; j++; }
+            else { rezultat[n++] = x; i++; j++; }
+        }
+        while (i < a.length) rezultat[n++] = a[i++];
+        while (j < b.size()) rezultat[n++] = b.get(j++);
+        return Arrays.copyOf(rezultat, n);
+    }
+}
@@ -0,0 +1,110 @@
+package service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Clasa {@code InelAudit} este un buffer circular marginit, fara blocari, cu mai multi
+ * producatori si un singur consumator.
+ * <p>
+ * Sloturile sunt alocate o singura data si refolosite: un producator revendica o pozitie cu un
+ * compare-and-set, completeaza campurile slotului si il publica. Fiecare slot are un numar de
+ * secventa care spune daca este liber pentru pozitia curenta, publicat sau inca in citire,
+ * deci producatorii nu asteapta niciodata dupa consumator sau unul dupa altul.
+ * </p>
+ * <p>
+ * Cand bufferul este plin, {@link #revendica()} intoarce -1 imediat; politica de tratare
+ * (de exemplu renuntarea la eveniment) apartine apelantului.
+ * </p>
+ *
+ * @param <T> tipul slotului, refolosit intre evenimente
+ */
+public class InelAudit<T> {
+
+    private final Object[] sloturi;
+    private final AtomicLongArray secvente;
+    private final int masca;
+    private final AtomicLong pozitieScriere = new AtomicLong();
+
+    /** Pozitia urmatorului slot de citit; folosita doar de consumator. */
+    private long pozitieCitire;
+
+    /**
+     * @param capacitate numarul de sloturi; se rotunjeste la o putere a lui 2
+     * @param fabricaSlot creeaza sloturile refolosibile
+     */
+    public InelAudit(int capacitate, Supplier<T> fabricaSlot) {
+        int n = Integer.highestOneBit(Math.max(2, capacitate) - 1) << 1;
+        sloturi = new Object[n];
+        secvente = new AtomicLongArray(n);
+        for (int i = 0; i < n; i++) {
+            sloturi[i] = fabricaSlot.get();
+            secvente.set(i, i);
+        }
+        masca = n - 1;
+    }
+
+    /**
+     * Revendica un slot pentru scriere.
+     *
+     * @return pozitia revendicata sau -1 daca bufferul este plin
+     */
+    public long revendica() {
+        while (true) {
+            long pozitie = pozitieScriere.get();
+            long secventa = secvente.get((int) pozitie & masca);
+            if (secventa == pozitie) {
+                if (pozitieScriere.compareAndSet(pozitie, pozitie + 1)) return pozitie;
+            } else if (secventa < pozitie) {
+                // Slotul nu a fost inca eliberat de consumator: bufferul este plin
+                return -1;
+            }
+            // Alt producator a revendicat pozitia intre timp; se reincearca
+        }
+    }
+
+    /**
+     * Returneaza slotul unei pozitii revendicate, pentru a fi completat.
+     */
+    @SuppressWarnings("unchecked")
+    public T slot(long pozitie) {
+        return (T) sloturi[(int) pozitie & masca];
+    }
+
+    /**
+     * Publica un slot completat, facandu-l vizibil consumatorului.
+     */
+    public void publica(long pozitie) {
+        secvente.set((int) pozitie & masca, pozitie + 1);
+    }
+
+    /**
+     * Consuma sloturile publicate, in ordine, pana la un numar maxim. Trebuie apelata
+     * dintr-un singur fir.
+     *
+     * @param procesor prelucreaza fiecare slot; slotul nu trebuie pastrat dupa apel
+     * @param maxim numarul maxim de sloturi consumate
+     * @return numarul de sloturi consumate
+     */
+    public int consuma(Consumer<T> procesor, int maxim) {
+        int consumate = 0;
+        while (consumate < maxim) {
+            int index = (int) pozitieCitire & masca;
+            if (secvente.get(index) != pozitieCitire + 1) break;
+            @SuppressWarnings("unchecked")
+            T slot = (T) sloturi[index];
+            procesor.accept(slot);
+            secvente.set(index, pozitieCitire + sloturi.length);
+            pozitieCitire++;
+            consumate++;
+        }
+        return consumate;
+    }
+
+    /** @return {@code true} daca toate sloturile revendicate au fost consumate */
+    public boolean esteGol() {
+        return pozitieScriere.get() == pozitieCitire;
+    }
+}
@@ -0,0 +1,128 @@
+package service;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Clasa {@code InregistrareAudit} reprezinta o linie din jurnalul de audit, citita inapoi
+ * ca eveniment tipizat.
+ * <p>
+ * O linie are forma {@code <moment> - <TIP>[ cont=<id>][ destinatie=<id>][ email=<email>] - <text>}.
+ * Liniile scrise inainte de introducerea antetului nu au tip si nici campuri.
+ * </p>
+ */
+public final class InregistrareAudit {
+
+    private static final String SEPARATOR = " - ";
+    private static final int LUNGIME_TIMP = 23;
+
+    private final LocalDateTime timp;
+    private final TipEveniment tip;
+    private final String email;
+    private final int cont;
+    private final int contDestinatie;
+    private final String text;
+
+    InregistrareAudit(LocalDateTime timp, TipEveniment tip, String email, int cont, int contDestinatie, String text) {
+        this.timp = timp;
+        this.tip = tip;
+        this.email = email;
+        this.cont = cont;
+        this.contDestinatie = contDestinatie;
+        this.text = text;
+    }
+
+    /**
+     * Scrie antetul unui eveniment: tipul si, daca exista, conturile si emailul.
+     */
+    static void scrieAntet(StringBuilder sb, TipEveniment tip, String email, int cont, int contDestinatie) {
+        sb.append(tip.name());
+        if (cont >= 0) sb.append(" cont=").append(cont);
+        if (contDestinatie >= 0) sb.append(" destinatie=").append(contDestinatie);
+        if (email != null) {
+            sb.append(" email=");
+            // Spatiile ar rupe antetul; un email valid nu le contine
+            for (int i = 0; i < email.length(); i++) {
+                char c = email.charAt(i);
+                sb.append(Character.isWhitespace(c) ? '_' : c);
+            }
+        }
+    }
+
+    /**
+     * Citeste o linie din jurnal.
+     *
+     * @param linie linia, fara terminator
+     * @return inregistrarea sau {@code null} daca linia nu incepe cu un moment valid
+     */
+    static InregistrareAudit parseaza(String linie) {
+        if (linie.length() < LUNGIME_TIMP + SEPARATOR.length()) return null;
+        LocalDateTime timp;
+        try {
+            timp = LocalDateTime.parse(linie.substring(0, LUNGIME_TIMP), ArhivaAudit.FORMAT_TIMP);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+        int inceputAntet = LUNGIME_TIMP + SEPARATOR.length();
+        int sfarsitAntet = linie.indexOf(SEPARATOR, inceputAntet);
+        if (sfarsitAntet < 0) {
+            return new InregistrareAudit(timp, null, null, -1, -1, linie.substring(inceputAntet));
+        }
+
+        String[] campuri = linie.substring(inceputAntet, sfarsitAntet).split(" ");
+        TipEveniment tip;
+        try {
+            tip = TipEveniment.valueOf(campuri[0]);
+        } catch (IllegalArgumentException e) {
+            // Linie fara antet: tot restul este text
+            return new InregistrareAudit(timp, null, null, -1, -1, linie.substring(inceputAntet));
+        }
+
+        String email = null;
+        int cont = -1;
+        int contDestinatie = -1;
+        for (int i = 1; i < campuri.length; i++) {
+            String camp = campuri[i];
+            try {
+                if (camp.startsWith("cont=")) {
+                    cont = Integer.parseInt(camp.substring(5));
+                } else if (camp.startsWith("destinatie=")) {
+                    contDestinatie = Integer.parseInt(camp.substring(11));
+                } else if (camp.startsWith("email=")) {
+                    email = camp.substring(6);
+                }
+            } catch (NumberFormatException e) {
+                // Campul invalid este ignorat
+            }
+        }
+        return new InregistrareAudit(timp, tip, email, cont, contDestinatie,
+                linie.substring(sfarsitAntet + SEPARATOR.length()));
+    }
+
+    public LocalDateTime getTimp() { return timp; }
+
+    /** @return tipul evenimentului sau {@code null} pentru liniile fara antet */
+    public TipEveniment getTip() { return tip; }
+
+    /** @return emailul clientului sau {@code null} */
+    public String getEmail() { return email; }
+
+    /** @return id-ul contului principal sau -1 */
+    public int getCont() { return cont; }
+
+    /** @return id-ul contului destinatie (la transferuri) sau -1 */
+    public int getContDestinatie() { return contDestinatie; }
+
+    public String getText() { return text; }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(timp.format(ArhivaAudit.FORMAT_TIMP)).append(SEPARATOR);
+        if (tip != null) {
+            scrieAntet(sb, tip, email, cont, contDestinatie);
+            sb.append(SEPARATOR);
+        }
+        return sb.append(text).toString();
+    }
+}
@@ -0,0 +1,72 @@
+package service;
+
+import model.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Clasa {@code InstantaneuCont} este o copie imutabila a starii unui cont la un moment dat.
+ * <p>
+ * Este capturata pe firul care modifica contul si transmisa firului de persistenta,
+ * astfel incat scrierea pe disc nu citeste niciodata obiecte {@link ContBancar} aflate in modificare.
+ * </p>
+ */
+public final class InstantaneuCont {
+
+    public static final String TIP_CURENT = "CURENT";
+    public static final String TIP_ECONOMII = "ECONOMII";
+    public static final String TIP_CREDIT = "CREDIT";
+
+    private final int id;
+    private final long sold;
+    private final int idClient;
+    private final Valuta valuta;
+    private final String tip;
+    private final LocalDateTime creationDate;
+    private final ContEconomii.TipEconomii tipEconomii;
+    private final long dobandaAcumulata;
+
+    InstantaneuCont(int id, long sold, int idClient, Valuta valuta, String tip,
+                            LocalDateTime creationDate, ContEconomii.TipEconomii tipEconomii,
+                            long dobandaAcumulata) {
+        this.id = id;
+        this.sold = sold;
+        this.idClient = idClient;
+        this.valuta = valuta;
+        this.tip = tip;
+        this.creationDate = creationDate;
+        this.tipEconomii = tipEconomii;
+        this.dobandaAcumulata = dobandaAcumulata;
+    }
+
+    /**
+     * Captureaza starea curenta a unui cont.
+     *
+     * @param c contul de capturat
+     * @return instantaneul contului
+     */
+    public static InstantaneuCont din(ContBancar c) {
+        if (c instanceof ContEconomii) {
+            ContEconomii ce = (ContEconomii) c;
+            return new InstantaneuCont(c.getId(), c.getSold(), c.getClient().getId(), c.getValuta(),
+                    TIP_ECONOMII, c.getCreationDate(), ce.getTip(), ce.getDobandaAcumulata());
+        }
+        String tip = c instanceof ContCurent ? TIP_CURENT : TIP_CREDIT;
+        return new InstantaneuCont(c.getId(), c.getSold(), c.getClient().getId(), c.getValuta(),
+                tip, c.getCreationDate(), null, 0);
+    }
+
+    public int getId() { return id; }
+    /** @return soldul, in subunitati */
+    public long getSold() { return sold; }
+    public int getIdClient() { return idClient; }
+    public Valuta getValuta() { return valuta; }
+    public String getTip() { return tip; }
+    public LocalDateTime getCreationDate() { return creationDate; }
+
+    /** @return tipul contului de economii sau {@code null} pentru celelalte conturi */
+    public ContEconomii.TipEconomii getTipEconomii() { return tipEconomii; }
+
+    /** @return dobanda acumulata, in subunitati */
+    public long getDobandaAcumulata() { return dobandaAcumulata; }
+}
@@ -0,0 +1,122 @@
+package service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Clasa {@code InterogareAudit} cauta evenimente in jurnalul de audit folosind {@link IndexAudit}.
+ * <p>
+ * Criteriile se combina (toate trebuie indeplinite); pentru tip se pot da mai multe valori,
+ * dintre care oricare este acceptata. Jurnalul nu este parcurs: indexul da direct pozitiile
+ * liniilor, iar doar acestea sunt citite de pe disc.
+ * </p>
+ * <pre>
+ * try (Stream&lt;InregistrareAudit&gt; esuate = AuditService.interogare()
+ *         .email("ana@exemplu.ro")
+ *         .tip(TipEveniment.LOGIN_ESUAT, TipEveniment.LOGIN_GUI_ESUAT)
+ *         .executa()) {
+ *     esuate.forEach(System.out::println);
+ * }
+ * </pre>
+ */
+public final class InterogareAudit {
+
+    private final IndexAudit index;
+    private final ArhivaAudit arhiva;
+
+    private String email;
+    private int cont = -1;
+    private TipEveniment[] tipuri;
+    private LocalDateTime deLa;
+    private LocalDateTime panaLa;
+
+    InterogareAudit(IndexAudit index, ArhivaAudit arhiva) {
+        this.index = index;
+        this.arhiva = arhiva;
+    }
+
+    /** Doar evenimentele clientului cu acest email (fara a tine cont de majuscule). */
+    public InterogareAudit email(String email) {
+        this.email = email;
+        return this;
+    }
+
+    /** Doar evenimentele care implica acest cont (ca sursa sau ca destinatie). */
+    public InterogareAudit cont(int idCont) {
+        this.cont = idCont;
+        return this;
+    }
+
+    /** Doar evenimentele de unul dintre aceste tipuri. */
+    public InterogareAudit tip(TipEveniment... tipuri) {
+        this.tipuri = tipuri.length == 0 ? null : tipuri.clone();
+        return this;
+    }
+
+    /** Doar evenimentele dintre doua momente (inceput inclusiv, sfarsit exclusiv). */
+    public InterogareAudit intre(LocalDateTime deLa, LocalDateTime panaLa) {
+        this.deLa = deLa;
+        this.panaLa = panaLa;
+        return this;
+    }
+
+    /**
+     * Executa interogarea. Liniile sunt citite pe masura ce fluxul este parcurs; fluxul
+     * tine deschis un fisier si trebuie inchis (de exemplu cu try-with-resources).
+     *
+     * @return evenimentele gasite, in ordine cronologica
+     * @throws IllegalStateException daca nu a fost dat niciun criteriu de email, cont sau tip
+     */
+    public Stream<InregistrareAudit> executa() {
+        if (email == null && cont < 0 && tipuri == null) {
+            throw new IllegalStateException(
+                    "Interogarea trebuie sa aiba cel putin un criteriu: email, cont sau tip.");
+        }
+        try {
+            index.asteaptaIncarcarea();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Stream.empty();
+        }
+
+        long[] pozitii = index.cauta(email, cont, tipuri);
+        int start = 0;
+        int sfarsit = pozitii.length;
+        if (deLa != null && panaLa != null) {
+            // Pozitiile incep cu ziua segmentului, deci zilele din afara intervalului se sar direct
+            start = primaDupa(pozitii, IndexAudit.primaPozitie(deLa.toLocalDate()));
+            sfarsit = primaDupa(pozitii, IndexAudit.primaPozitie(panaLa.toLocalDate().plusDays(1)));
+        }
+
+        ArhivaAudit.CititorLinii cititor = arhiva.new CititorLinii();
+        return Arrays.stream(pozitii, start, Math.max(start, sfarsit))
+                .mapToObj(p -> {
+                    try {
+                        String linie = cititor.citeste(p);
+                        return linie == null ? null : InregistrareAudit.parseaza(linie);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                })
+                .filter(Objects::nonNull)
+                .filter(r -> deLa == null || panaLa == null
+                        || (!r.getTimp().isBefore(deLa) && r.getTimp().isBefore(panaLa)))
+                .onClose(() -> {
+                    try {
+                        cititor.close();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
+
+    /** Prima pozitie din vectorul sortat care este cel putin {@code valoare}. */
+    private static int primaDupa(long[] pozitii, long valoare) {
+        int i = Arrays.binarySearch(pozitii, valoare);
+        return i >= 0 ? i : -i - 1;
+    }
+}
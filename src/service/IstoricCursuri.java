@@ -0,0 +1,194 @@
+package service;
+
+import model.Valuta;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Clasa {@code IstoricCursuri} pastreaza cursurile valutare aplicate in fiecare zi, pentru a
+ * putea recalcula tranzactii vechi si extrase la cursul de la o anumita data.
+ * <p>
+ * Pe disc, istoricul este un fisier text la care doar se adauga linii, cate una pentru fiecare
+ * set de cursuri publicat:
+ * {@code <data>;RON_TO_EUR=<curs>;EUR_TO_RON=<curs>;...}. O linie mai noua pentru aceeasi zi o
+ * inlocuieste pe cea veche.
+ * </p>
+ * <p>
+ * In memorie, zilele sunt un {@code long[]} sortat (zile epoch), iar matricele sunt puse una
+ * dupa alta intr-un singur {@code double[]}. Cautarea unui curs la o data este o cautare binara
+ * si o citire din vector, fara alocari. Adaugarile vin doar de la firul care incarca cursurile;
+ * cititorii folosesc ultima {@link Serie} publicata, care nu se mai modifica in limitele ei.
+ * </p>
+ */
+public final class IstoricCursuri {
+
+    private static final int NUMAR_VALUTE = Valuta.values().length;
+    private static final int DIMENSIUNE_MATRICE = NUMAR_VALUTE * NUMAR_VALUTE;
+
+    /** Zilele si matricele publicate; elementele de dupa {@code numar} nu sunt inca vizibile. */
+    private static final class Serie {
+        final long[] zile;
+        final double[] cursuri;
+        final int numar;
+
+        Serie(long[] zile, double[] cursuri, int numar) {
+            this.zile = zile;
+            this.cursuri = cursuri;
+            this.numar = numar;
+        }
+    }
+
+    private final Path fisier;
+    private volatile Serie serie = new Serie(new long[16], new double[16 * DIMENSIUNE_MATRICE], 0);
+
+    private IstoricCursuri(Path fisier) {
+        this.fisier = fisier;
+    }
+
+    /**
+     * Incarca istoricul dintr-un fisier. Daca fisierul nu exista, istoricul incepe gol.
+     *
+     * @param fisier fisierul istoricului
+     * @return istoricul
+     */
+    public static IstoricCursuri incarca(Path fisier) {
+        IstoricCursuri istoric = new IstoricCursuri(fisier);
+        if (!Files.exists(fisier)) return istoric;
+
+        try (BufferedReader br = Files.newBufferedReader(fisier, StandardCharsets.UTF_8)) {
+            String linie;
+            while ((linie = br.readLine()) != null) {
+                if (linie.isEmpty()) continue;
+                try {
+                    String[] campuri = linie.split(";");
+                    long zi = LocalDate.parse(campuri[0]).toEpochDay();
+                    double[] matrice = CursuriValutare.matriceIdentitate();
+                    for (int i = 1; i < campuri.length; i++) {
+                        String[] pereche = campuri[i].split("=");
+                        String[] valute = pereche[0].split("_TO_");
+                        matrice[CursuriValutare.index(Valuta.din(valute[0]), Valuta.din(valute[1]))] =
+                                Double.parseDouble(pereche[1]);
+                    }
+                    istoric.adaugaInMemorie(zi, matrice);
+                } catch (RuntimeException e) {
+                    System.out.println("Linie ignorata in istoricul cursurilor (" + linie + "): " + e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            System.out.println("Eroare la citirea istoricului de cursuri: " + e.getMessage());
+        }
+        return istoric;
+    }
+
+    /**
+     * Inregistreaza cursurile unui instantaneu pentru ziua data. Daca ele sunt identice cu
+     * ultimele inregistrate, nu se scrie nimic.
+     *
+     * @param zi ziua de la care se aplica cursurile
+     * @param curs cursurile
+     */
+    synchronized void inregistreaza(LocalDate zi, CursuriValutare curs) {
+        double[] matrice = new double[DIMENSIUNE_MATRICE];
+        for (Valuta din : Valuta.values()) {
+            for (Valuta in : Valuta.values()) {
+                matrice[CursuriValutare.index(din, in)] = curs.curs(din, in);
+            }
+        }
+        Serie s = serie;
+        if (s.numar > 0 && Arrays.equals(s.cursuri, (s.numar - 1) * DIMENSIUNE_MATRICE, s.numar * DIMENSIUNE_MATRICE,
+                matrice, 0, DIMENSIUNE_MATRICE)) {
+            return;
+        }
+
+        StringBuilder sb = new StringBuilder(zi.toString());
+        for (Valuta din : Valuta.values()) {
+            for (Valuta in : Valuta.values()) {
+                if (din == in) continue;
+                sb.append(';').append(din).append("_TO_").append(in).append('=')
+                        .append(matrice[CursuriValutare.index(din, in)]);
+            }
+        }
+        sb.append(System.lineSeparator());
+        try {
+            Files.write(fisier, sb.toString().getBytes(StandardCharsets.UTF_8),
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            System.out.println("Eroare la scrierea istoricului de cursuri: " + e.getMessage());
+        }
+        adaugaInMemorie(zi.toEpochDay(), matrice);
+    }
+
+    private void adaugaInMemorie(long zi, double[] matrice) {
+        Serie s = serie;
+        int n = s.numar;
+        if (n > 0 && zi < s.zile[n - 1]) {
+            // Istoricul se scrie in ordine; o zi mai veche ar strica sortarea
+            System.out.println("Cursuri ignorate pentru " + LocalDate.ofEpochDay(zi)
+                    + ": istoricul are deja o zi mai noua.");
+            return;
+        }
+        if (n > 0 && zi == s.zile[n - 1]) {
+            // Aceeasi zi: matricea publicata poate fi citita chiar acum, deci se inlocuieste intr-o copie
+            double[] cursuri = s.cursuri.clone();
+            System.arraycopy(matrice, 0, cursuri, (n - 1) * DIMENSIUNE_MATRICE, DIMENSIUNE_MATRICE);
+            serie = new Serie(s.zile, cursuri, n);
+            return;
+        }
+
+        long[] zile = s.zile;
+        double[] cursuri = s.cursuri;
+        if (n == zile.length) {
+            zile = Arrays.copyOf(zile, n * 2);
+            cursuri = Arrays.copyOf(cursuri, n * 2 * DIMENSIUNE_MATRICE);
+        }
+        // Elementele de dupa numarul publicat nu sunt citite de nimeni
+        zile[n] = zi;
+        System.arraycopy(matrice, 0, cursuri, n * DIMENSIUNE_MATRICE, DIMENSIUNE_MATRICE);
+        serie = new Serie(zile, cursuri, n + 1);
+    }
+
+    /** @return {@code true} daca nu exista nicio zi inregistrata */
+    public boolean esteGol() {
+        return serie.numar == 0;
+    }
+
+    /**
+     * Returneaza cursul aplicat intr-o zi: cel din ultima zi inregistrata care nu este dupa
+     * ziua ceruta. Pentru zilele dinaintea istoricului se foloseste prima zi inregistrata.
+     *
+     * @param din valuta sursa
+     * @param in valuta destinatie
+     * @param ziEpoch ziua, ca numar de zile epoch ({@link LocalDate#toEpochDay()})
+     * @return cursul sau {@link Double#NaN} daca istoricul este gol
+     */
+    public double curs(Valuta din, Valuta in, long ziEpoch) {
+        Serie s = serie;
+        if (s.numar == 0) return Double.NaN;
+
+        int st = 0;
+        int dr = s.numar - 1;
+        // Ultimul index cu zile[index] <= ziEpoch
+        while (st <= dr) {
+            int mij = (st + dr) >>> 1;
+            if (s.zile[mij] <= ziEpoch) st = mij + 1;
+            else dr = mij - 1;
+        }
+        int i = Math.max(dr, 0);
+        return s.cursuri[i * DIMENSIUNE_MATRICE + CursuriValutare.index(din, in)];
+    }
+
+    /**
+     * Returneaza cursul aplicat intr-o zi.
+     *
+     * @see #curs(Valuta, Valuta, long)
+     */
+    public double curs(Valuta din, Valuta in, LocalDate zi) {
+        return curs(din, in, zi.toEpochDay());
+    }
+}
@@ -0,0 +1,267 @@
+package service;
+
+import model.Tranzactie;
+import model.Valuta;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+/**
+ * Clasa {@code JurnalTranzactii} pastreaza istoricul tranzactiilor in memorie, pe coloane.
+ * <p>
+ * Fiecare camp al tranzactiilor are propriul vector de primitive (id-uri, conturi, sume,
+ * momente, valute), deci o tranzactie ocupa aproximativ 33 de octeti, fara antet de obiect si
+ * fara referinte. O tranzactie este identificata prin pozitia ei in jurnal, care nu se schimba:
+ * istoricul doar creste, nimic nu se sterge.
+ * </p>
+ * <p>
+ * Pe langa ordinea adaugarii, jurnalul tine si ordinea dupa moment ({@code dupaTimp}: pozitiile
+ * sortate dupa momentul tranzactiei), deci o cautare pe un interval de timp este o cautare
+ * binara. Tranzactiile noi primesc momentul chiar in {@link #adaugaAcum}, sub lacatul
+ * jurnalului, deci sunt mereu in ordinea timpului si se pun la sfarsit. Doar o tranzactie
+ * primita gata facuta, mai veche decat ultima (de exemplu la incarcarea unui jurnal vechi),
+ * este inserata la locul ei, intr-o copie a ordinii dupa timp.
+ * </p>
+ * <p>
+ * Adaugarile sunt serializate intre ele. Cititorii nu blocheaza: folosesc ultimele
+ * {@link Coloane} publicate, care nu se mai modifica in limitele lor.
+ * </p>
+ */
+public final class JurnalTranzactii {
+
+    /** Vectorii jurnalului; pozitiile de dupa {@code numar} nu sunt inca vizibile. */
+    private static final class Coloane {
+        final int[] id;
+        final int[] idSursa;
+        final int[] idDestinatie;
+        final long[] suma;
+        final long[] moment;
+        final byte[] valuta;
+        final int[] dupaTimp;
+        final int numar;
+
+        Coloane(int capacitate) {
+            id = new int[capacitate];
+            idSursa = new int[capacitate];
+            idDestinatie = new int[capacitate];
+            suma = new long[capacitate];
+            moment = new long[capacitate];
+            valuta = new byte[capacitate];
+            dupaTimp = new int[capacitate];
+            numar = 0;
+        }
+
+        /** Copiaza toate coloanele in vectori mai mari. */
+        Coloane(Coloane vechi, int capacitate) {
+            id = Arrays.copyOf(vechi.id, capacitate);
+            idSursa = Arrays.copyOf(vechi.idSursa, capacitate);
+            idDestinatie = Arrays.copyOf(vechi.idDestinatie, capacitate);
+            suma = Arrays.copyOf(vechi.suma, capacitate);
+            moment = Arrays.copyOf(vechi.moment, capacitate);
+            valuta = Arrays.copyOf(vechi.valuta, capacitate);
+            dupaTimp = Arrays.copyOf(vechi.dupaTimp, capacitate);
+            numar = vechi.numar;
+        }
+
+        /** Aceleasi coloane, cu alta ordine dupa timp si alt numar de elemente vizibile. */
+        Coloane(Coloane vechi, int[] dupaTimp, int numar) {
+            id = vechi.id;
+            idSursa = vechi.idSursa;
+            idDestinatie = vechi.idDestinatie;
+            suma = vechi.suma;
+            moment = vechi.moment;
+            valuta = vechi.valuta;
+            this.dupaTimp = dupaTimp;
+            this.numar = numar;
+        }
+
+        int verifica(int pozitie) {
+            if (pozitie < 0 || pozitie >= numar) {
+                throw new IndexOutOfBoundsException("Pozitie in jurnal: " + pozitie + ", numar: " + numar);
+            }
+            return pozitie;
+        }
+
+        /** @return primul indice din {@code dupaTimp} al carui moment este mai mare decat {@code m} */
+        int primulDupa(long m) {
+            int st = 0;
+            int dr = numar;
+            while (st < dr) {
+                int mij = (st + dr) >>> 1;
+                if (moment[dupaTimp[mij]] <= m) st = mij + 1;
+                else dr = mij;
+            }
+            return st;
+        }
+
+        /** @return primul indice din {@code dupaTimp} al carui moment nu este mai mic decat {@code m} */
+        int primulDeLa(long m) {
+            int st = 0;
+            int dr = numar;
+            while (st < dr) {
+                int mij = (st + dr) >>> 1;
+                if (moment[dupaTimp[mij]] < m) st = mij + 1;
+                else dr = mij;
+            }
+            return st;
+        }
+    }
+
+    private volatile Coloane coloane;
+
+    public JurnalTranzactii() {
+        this(64);
+    }
+
+    /**
+     * @param capacitate numarul de tranzactii pentru care se rezerva loc de la inceput
+     */
+    public JurnalTranzactii(int capacitate) {
+        coloane = new Coloane(Math.max(1, capacitate));
+    }
+
+    /**
+     * Adauga o tranzactie efectuata acum. Momentul se citeste dupa ce s-a luat lacatul
+     * jurnalului si nu este niciodata mai mic decat al ultimei tranzactii, deci adaugarea nu
+     * reordoneaza nimic, chiar daca ceasul sistemului da inapoi.
+     *
+     * @param id id-ul tranzactiei
+     * @param idSursa id-ul contului sursa
+     * @param idDestinatie id-ul contului destinatie
+     * @param suma suma, in subunitati
+     * @param valuta valuta sumei
+     * @return pozitia tranzactiei in jurnal
+     */
+    public synchronized int adaugaAcum(int id, int idSursa, int idDestinatie, long suma, Valuta valuta) {
+        Coloane c = coloane;
+        int n = c.numar;
+        long moment = System.currentTimeMillis();
+        if (n > 0) moment = Math.max(moment, c.moment[c.dupaTimp[n - 1]]);
+        return adauga(new Tranzactie(id, idSursa, idDestinatie, suma, valuta, moment));
+    }
+
+    /**
+     * Adauga o tranzactie la sfarsitul jurnalului si o pune la locul ei in ordinea dupa timp.
+     *
+     * @param t tranzactia
+     * @return pozitia tranzactiei in jurnal
+     */
+    public synchronized int adauga(Tranzactie t) {
+        Coloane c = coloane;
+        int n = c.numar;
+        if (n == c.id.length) {
+            c = new Coloane(c, n * 2);
+        }
+        // Elementele de dupa numarul publicat nu sunt citite de nimeni
+        long m = t.getMoment();
+        c.id[n] = t.getId();
+        c.idSursa[n] = t.getIdSursa();
+        c.idDestinatie[n] = t.getIdDestinatie();
+        c.suma[n] = t.getSuma();
+        c.moment[n] = m;
+        c.valuta[n] = (byte) t.getValuta().ordinal();
+
+        int[] dupaTimp = c.dupaTimp;
+        int loc = n;
+        if (n > 0 && c.moment[dupaTimp[n - 1]] > m) {
+            // Ordinea publicata poate fi citita chiar acum, deci se insereaza intr-o copie
+            loc = c.primulDupa(m);
+            dupaTimp = dupaTimp.clone();
+            System.arraycopy(dupaTimp, loc, dupaTimp, loc + 1, n - loc);
+        }
+        dupaTimp[loc] = n;
+        coloane = new Coloane(c, dupaTimp, n + 1);
+        return n;
+    }
+
+    /** @return numarul de tranzactii vizibile; toate pozitiile mai mici pot fi citite */
+    public int numar() {
+        return coloane.numar;
+    }
+
+    public int id(int pozitie) {
+        Coloane c = coloane;
+        return c.id[c.verifica(pozitie)];
+    }
+
+    public int idSursa(int pozitie) {
+        Coloane c = coloane;
+        return c.idSursa[c.verifica(pozitie)];
+    }
+
+    public int idDestinatie(int pozitie) {
+        Coloane c = coloane;
+        return c.idDestinatie[c.verifica(pozitie)];
+    }
+
+    /** @return suma tranzactiei, in subunitati ale valutei ei */
+    public long suma(int pozitie) {
+        Coloane c = coloane;
+        return c.suma[c.verifica(pozitie)];
+    }
+
+    /** @return momentul tranzactiei, in milisecunde epoch */
+    public long moment(int pozitie) {
+        Coloane c = coloane;
+        return c.moment[c.verifica(pozitie)];
+    }
+
+    public Valuta valuta(int pozitie) {
+        Coloane c = coloane;
+        return Valuta.dupaOrdinal(c.valuta[c.verifica(pozitie)]);
+    }
+
+    /**
+     * Construieste obiectul {@link Tranzactie} de la o pozitie. Pentru parcurgeri mari se
+     * prefera metodele pe coloane, care nu creeaza obiecte.
+     *
+     * @param pozitie pozitia in jurnal
+     * @return tranzactia
+     */
+    public Tranzactie get(int pozitie) {
+        Coloane c = coloane;
+        int p = c.verifica(pozitie);
+        return new Tranzactie(c.id[p], c.idSursa[p], c.idDestinatie[p], c.suma[p],
+                Valuta.dupaOrdinal(c.valuta[p]), c.moment[p]);
+    }
+
+    /**
+     * Returneaza pozitiile tranzactiilor dintr-un interval de timp, in ordinea momentului.
+     * Capetele intervalului se gasesc prin cautare binara; se copiaza doar rezultatul.
+     *
+     * @param de inceputul intervalului, inclusiv (milisecunde epoch)
+     * @param pana sfarsitul intervalului, exclusiv (milisecunde epoch)
+     * @return pozitiile din jurnal, eventual un vector gol
+     */
+    public int[] pozitiiIntre(long de, long pana) {
+        Coloane c = coloane;
+        int st = c.primulDeLa(de);
+        int dr = Math.max(st, c.primulDeLa(pana));
+        return Arrays.copyOfRange(c.dupaTimp, st, dr);
+    }
+
+    /**
+     * Returneaza pozitiile tranzactiilor dintre doua date locale, in ordinea momentului.
+     *
+     * @see #pozitiiIntre(long, long)
+     */
+    public int[] pozitiiIntre(LocalDateTime de, LocalDateTime pana) {
+        return pozitiiIntre(Tranzactie.momentDin(de), Tranzactie.momentDin(pana));
+    }
+
+    /** @return cate tranzactii au momentul in intervalul {@code [de, pana)} */
+    public int numarIntre(long de, long pana) {
+        Coloane c = coloane;
+        return Math.max(0, c.primulDeLa(pana) - c.primulDeLa(de));
+    }
+
+    /** @return cel mai mare id de tranzactie din jurnal sau 0 daca jurnalul este gol */
+    public int idMaxim() {
+        Coloane c = coloane;
+        int max = 0;
+        for (int i = 0; i < c.numar; i++) {
+            if (c.id[i] > max) max = c.id[i];
+        }
+        return max;
+    }
+}
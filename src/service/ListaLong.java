@@ -0,0 +1,54 @@
+package service;
+
+import java.util.Arrays;
+
+/**
+ * Lista de valori {@code long} pastrate intr-un vector de primitive, fara obiecte {@link Long}.
+ * Folosita pentru listele de pozitii din indexul de audit. Nu este sincronizata.
+ */
+final class ListaLong {
+
+    private long[] valori;
+    private int dimensiune;
+
+    ListaLong() {
+        this(8);
+    }
+
+    ListaLong(int capacitate) {
+        valori = new long[Math.max(1, capacitate)];
+    }
+
+    void adauga(long valoare) {
+        if (dimensiune == valori.length) {
+            valori = Arrays.copyOf(valori, dimensiune * 2);
+        }
+        valori[dimensiune++] = valoare;
+    }
+
+    /** Adauga la inceputul listei valorile altei liste, pastrand ordinea lor. */
+    void adaugaLaInceput(ListaLong alta) {
+        long[] noi = new long[Math.max(8, alta.dimensiune + dimensiune)];
+        System.arraycopy(alta.valori, 0, noi, 0, alta.dimensiune);
+        System.arraycopy(valori, 0, noi, alta.dimensiune, dimensiune);
+        valori = noi;
+        dimensiune += alta.dimensiune;
+    }
+
+    /** Cautare binara; lista trebuie sa fie sortata crescator. */
+    boolean contine(long valoare) {
+        return Arrays.binarySearch(valori, 0, dimensiune, valoare) >= 0;
+    }
+
+    long get(int i) {
+        return valori[i];
+    }
+
+    int size() {
+        return dimensiune;
+    }
+
+    long[] toArray() {
+        return Arrays.copyOf(valori, dimensiune);
+    }
+}
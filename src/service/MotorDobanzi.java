@@ -0,0 +1,157 @@
+package service;
+
+import model.Bani;
+import model.ContBancar;
+import model.ContEconomii;
+import model.Valuta;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.ObjLongConsumer;
+import java.util.function.Predicate;
+
+/**
+ * Clasa {@code MotorDobanzi} aplica dobanda lunara pe conturile de economii in paralel.
+ * <p>
+ * Conturile sunt impartite recursiv intre firele unui {@link ForkJoinPool}. Toate conturile
+ * dintr-o rulare sunt evaluate fata de acelasi moment, fixat o singura data, deci rezultatul
+ * nu depinde de ordinea sau durata procesarii. Fiecare cont este blocat individual cat timp
+ * i se aplica dobanda; un cont inchis dupa ce a fost ales este sarit.
+ * </p>
+ */
+public class MotorDobanzi {
+
+    /** Numarul maxim de conturi procesate secvential de o singura sarcina. */
+    private static final int PRAG_SECVENTIAL = 1024;
+
+    /**
+     * Rezultatul unei rulari a dobanzii lunare.
+     */
+    public static final class RezultatDobanzi {
+        private int conturiEvaluate;
+        private int conturiAtinse;
+        private final Map<Valuta, Long> dobandaPeValuta = new EnumMap<>(Valuta.class);
+
+        private void adauga(RezultatDobanzi altul) {
+            conturiEvaluate += altul.conturiEvaluate;
+            conturiAtinse += altul.conturiAtinse;
+            altul.dobandaPeValuta.forEach((v, d) -> dobandaPeValuta.merge(v, d, Long::sum));
+        }
+
+        /** @return numarul de conturi de economii evaluate */
+        public int getConturiEvaluate() { return conturiEvaluate; }
+
+        /** @return numarul de conturi carora li s-a adaugat dobanda */
+        public int getConturiAtinse() { return conturiAtinse; }
+
+        /** @return dobanda totala adaugata pe fiecare valuta, in subunitati */
+        public Map<Valuta, Long> getDobandaPeValuta() { return Collections.unmodifiableMap(dobandaPeValuta); }
+
+        /** Scrie dobanda pe valuta, in unitati, de forma {@code {RON=12.34, EUR=0.56}}. */
+        void scrieDobandaPeValuta(StringBuilder sb) {
+            sb.append('{');
+            boolean primul = true;
+            for (Map.Entry<Valuta, Long> e : dobandaPeValuta.entrySet()) {
+                if (!primul) sb.append(", ");
+                Bani.adauga(sb.append(e.getKey()).append('='), e.getValue());
+                primul = false;
+            }
+            sb.append('}');
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder("conturi evaluate=").append(conturiEvaluate)
+                    .append(", conturi atinse=").append(conturiAtinse).append(", dobanda pe valuta=");
+            scrieDobandaPeValuta(sb);
+            return sb.toString();
+        }
+    }
+
+    private final ForkJoinPool pool;
+    private final BlocariConturi blocari;
+    private final Predicate<ContBancar> deschis;
+    private final ObjLongConsumer<ContBancar> laModificare;
+
+    /**
+     * @param pool pool-ul in care ruleaza calculul
+     * @param blocari lacatele conturilor
+     * @param deschis verifica, cat timp contul este blocat, ca acesta nu a fost inchis intre timp
+     * @param laModificare apelat pentru fiecare cont modificat, cu dobanda adaugata (in subunitati),
+     *                     cat timp contul este blocat
+     */
+    public MotorDobanzi(ForkJoinPool pool, BlocariConturi blocari, Predicate<ContBancar> deschis,
+                        ObjLongConsumer<ContBancar> laModificare) {
+        this.pool = pool;
+        this.blocari = blocari;
+        this.deschis = deschis;
+        this.laModificare = laModificare;
+    }
+
+    /**
+     * Aplica dobanda lunara pe toate conturile primite.
+     *
+     * @param conturi conturile de economii
+     * @param momentEvaluare momentul fata de care se evalueaza toate conturile
+     * @return sumarul rularii
+     */
+    public RezultatDobanzi aplica(List<ContEconomii> conturi, LocalDateTime momentEvaluare) {
+        return pool.invoke(new Sarcina(conturi, 0, conturi.size(), momentEvaluare));
+    }
+
+    private final class Sarcina extends RecursiveTask<RezultatDobanzi> {
+        private static final long serialVersionUID = 1L;
+
+        private final List<ContEconomii> conturi;
+        private final int start;
+        private final int sfarsit;
+        private final LocalDateTime moment;
+
+        Sarcina(List<ContEconomii> conturi, int start, int sfarsit, LocalDateTime moment) {
+            this.conturi = conturi;
+            this.start = start;
+            this.sfarsit = sfarsit;
+            this.moment = moment;
+        }
+
+        @Override
+        protected RezultatDobanzi compute() {
+            if (sfarsit - start <= PRAG_SECVENTIAL) {
+                return proceseaza();
+            }
+            int mijloc = (start + sfarsit) >>> 1;
+            Sarcina stanga = new Sarcina(conturi, start, mijloc, moment);
+            stanga.fork();
+            RezultatDobanzi rezultat = new Sarcina(conturi, mijloc, sfarsit, moment).compute();
+            rezultat.adauga(stanga.join());
+            return rezultat;
+        }
+
+        private RezultatDobanzi proceseaza() {
+            RezultatDobanzi rezultat = new RezultatDobanzi();
+            for (int i = start; i < sfarsit; i++) {
+                ContEconomii cont = conturi.get(i);
+                blocari.blocheaza(cont.getId());
+                try {
+                    // Contul putea fi inchis dupa ce lista a fost construita
+                    if (!deschis.test(cont)) continue;
+                    long dobanda = cont.aplicaDobandaLunara(moment);
+                    if (dobanda != 0) {
+                        laModificare.accept(cont, dobanda);
+                        rezultat.conturiAtinse++;
+                        rezultat.dobandaPeValuta.merge(cont.getValuta(), dobanda, Long::sum);
+                    }
+                    rezultat.conturiEvaluate++;
+                } finally {
+                    blocari.deblocheaza(cont.getId());
+                }
+            }
+            return rezultat;
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package service;
+
+import model.Client;
+import model.ContBancar;
+import model.Tranzactie;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Clasa {@code PersistentaAsincrona} scrie modificarile pe disc pe un fir dedicat (write-behind).
+ * <p>
+ * {@link Banca} doar pune in coada inregistrari de modificare, capturate pe firul apelant,
+ * si revine imediat. Firul de persistenta aduna inregistrarile in loturi si le scrie impreuna
+ * (group commit) cand expira intervalul configurat sau cand lotul atinge pragul de dimensiune.
+ * </p>
+ * <p>
+ * Un apelant care are nevoie de durabilitate poate astepta {@link CompletableFuture}-ul intors de
+ * {@link #salveaza()}, care se completeaza dupa ce lotul care il contine a fost scris, sau
+ * exceptional daca scrierea a esuat. Modificarile nescrise raman in lot si se reincearca la
+ * urmatoarea scriere.
+ * </p>
+ */
+public class PersistentaAsincrona {
+
+    /** Intervalul implicit dintre doua scrieri de lot, in milisecunde. */
+    public static final int INTERVAL_IMPLICIT_MS = Integer.getInteger("banca.persistenta.intervalMs", 50);
+
+    /** Numarul implicit de inregistrari dupa care lotul se scrie fara a astepta intervalul. */
+    public static final int PRAG_LOT_IMPLICIT = Integer.getInteger("banca.persistenta.pragLot", 512);
+
+    /** Inregistrare de modificare aplicata pe firul de persistenta. */
+    private interface Modificare extends Consumer<EvidentaModificari> { }
+
+    /** Cerere de salvare: se completeaza dupa scrierea lotului din care face parte. */
+    private static final class Bariera implements Modificare {
+        final CompletableFuture<Void> rezultat = new CompletableFuture<>();
+        @Override public void accept(EvidentaModificari e) { }
+    }
+
+    /** Marcaj pus in coada la oprire, pentru a trezi firul de persistenta. */
+    private static final Modificare STOP = e -> { };
+
+    private final LinkedBlockingQueue<Modificare> coada = new LinkedBlockingQueue<>();
+    private final long intervalNanos;
+    private final int pragLot;
+    private final Thread fir;
+    /** Modificat doar sub lacatul obiectului, impreuna cu punerea lui {@link #STOP} in coada. */
+    private volatile boolean activ = true;
+
+    // Stare detinuta exclusiv de firul de persistenta
+    private final EvidentaModificari lot = new EvidentaModificari();
+    private final FisierConturiBinar fisierConturi;
+
+    /**
+     * Porneste firul de persistenta. Dupa acest apel, fisierul de conturi este folosit
+     * doar de firul de persistenta.
+     *
+     * @param fisierConturi fisierul binar de conturi
+     * @param intervalMs intervalul maxim de asteptare pentru un lot, in milisecunde
+     * @param pragLot numarul de inregistrari dupa care lotul se scrie imediat
+     */
+    public PersistentaAsincrona(FisierConturiBinar fisierConturi, int intervalMs, int pragLot) {
+        this.fisierConturi = fisierConturi;
+        this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(intervalMs);
+        this.pragLot = pragLot;
+        this.fir = new Thread(this::ruleaza, "persistenta-date");
+        this.fir.setDaemon(true);
+        this.fir.start();
+    }
+
+    public void clientNou(Client client) {
+        coada.add(e -> e.clientNou(client));
+    }
+
+    /** Captureaza starea contului pe firul apelant si o pune in coada. */
+    public void contModificat(ContBancar cont) {
+        InstantaneuCont instantaneu = InstantaneuCont.din(cont);
+        coada.add(e -> e.contModificat(instantaneu));
+    }
+
+    public void contInchis(int idCont) {
+        coada.add(e -> e.contInchis(idCont));
+    }
+
+    public void tranzactieNoua(Tranzactie t) {
+        coada.add(e -> e.tranzactieNoua(t));
+    }
+
+    /**
+     * Cere scrierea tuturor modificarilor puse in coada pana acum.
+     *
+     * @return un handle care se completeaza dupa ce modificarile au ajuns pe disc
+     */
+    public CompletableFuture<Void> salveaza() {
+        Bariera b = new Bariera();
+        // Sub lacat, ca bariera sa nu ajunga in coada dupa STOP, unde nu ar mai fi completata
+        synchronized (this) {
+            if (activ) {
+                coada.add(b);
+                return b.rezultat;
+            }
+        }
+        b.rezultat.completeExceptionally(new IllegalStateException("Persistenta a fost oprita."));
+        return b.rezultat;
+    }
+
+    /**
+     * Opreste firul de persistenta dupa ce scrie tot ce se afla in coada.
+     */
+    public void inchide() {
+        synchronized (this) {
+            if (!activ) return;
+            activ = false;
+            coada.add(STOP);
+        }
+        try {
+            fir.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void ruleaza() {
+        List<Modificare> preluate = new ArrayList<>();
+        List<Bariera> bariere = new ArrayList<>();
+        boolean oprit = false;
+
+        while (!oprit) {
+            try {
+                Modificare prima = coada.take();
+                preluate.add(prima);
+
+                // Se aduna inregistrari pana expira intervalul sau se atinge pragul
+                long termen = System.nanoTime() + intervalNanos;
+                while (preluate.size() < pragLot && prima != STOP) {
+                    long ramas = termen - System.nanoTime();
+                    if (ramas <= 0) break;
+                    Modificare m = coada.poll(ramas, TimeUnit.NANOSECONDS);
+                    if (m == null) break;
+                    preluate.add(m);
+                    if (m == STOP) break;
+                }
+                coada.drainTo(preluate, Math.max(0, pragLot - preluate.size()));
+            } catch (InterruptedException e) {
+                oprit = true;
+                coada.drainTo(preluate);
+            }
+
+            for (Modificare m : preluate) {
+                if (m == STOP) {
+                    oprit = true;
+                } else if (m instanceof Bariera) {
+                    bariere.add((Bariera) m);
+                } else {
+                    m.accept(lot);
+                }
+            }
+            if (oprit) {
+                // La oprire nu se mai asteapta intervalul: se scrie tot ce a ramas
+                List<Modificare> rest = new ArrayList<>();
+                coada.drainTo(rest);
+                for (Modificare m : rest) {
+                    if (m instanceof Bariera) bariere.add((Bariera) m);
+                    else if (m != STOP) m.accept(lot);
+                }
+            }
+
+            scrieLot(bariere);
+            preluate.clear();
+            bariere.clear();
+        }
+
+        if (!lot.esteGoala()) {
+            System.out.println("Persistenta oprita cu modificari nescrise pe disc.");
+        }
+        try {
+            fisierConturi.close();
+        } catch (IOException e) {
+            System.out.println("Eroare la inchiderea fisierului de conturi: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Scrie lotul curent si completeaza cererile de salvare care il asteapta. Daca scrierea
+     * esueaza, cererile sunt completate cu eroarea, iar partile nescrise raman in lot.
+     */
+    private void scrieLot(List<Bariera> bariere) {
+        RuntimeException eroare = null;
+        if (!lot.esteGoala()) {
+            try {
+                FileManager.salveazaModificari(lot, fisierConturi);
+                lot.goleste();
+                AuditService.log(TipEveniment.DATE_SALVATE);
+            } catch (RuntimeException e) {
+                System.out.println("Eroare la salvarea datelor (se reincearca la urmatoarea salvare): "
+                        + e.getMessage());
+                eroare = e;
+            }
+        }
+
+        for (Bariera b : bariere) {
+            if (eroare == null) b.rezultat.complete(null);
+            else b.rezultat.completeExceptionally(eroare);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package service;
+
+import java.util.Arrays;
+
+/**
+ * Pozitiile din {@link JurnalTranzactii} ale tranzactiilor unui cont, sortate crescator.
+ * <p>
+ * Pozitiile sunt tinute intr-un vector de primitive. Adaugarile vin de la firele care
+ * inregistreaza tranzactii si pot sosi putin in afara ordinii, deci o pozitie mai mica decat
+ * ultima este inserata la locul ei. Toate metodele sunt sincronizate; lacatul este al unui
+ * singur cont, deci practic nu este disputat.
+ * </p>
+ */
+final class PozitiiTranzactii {
+
+    private int[] pozitii = new int[4];
+    private int numar;
+
+    synchronized void adauga(int pozitie) {
+        if (numar == pozitii.length) {
+            pozitii = Arrays.copyOf(pozitii, numar * 2);
+        }
+        int loc = numar;
+        while (loc > 0 && pozitii[loc - 1] > pozitie) loc--;
+        System.arraycopy(pozitii, loc, pozitii, loc + 1, numar - loc);
+        pozitii[loc] = pozitie;
+        numar++;
+    }
+
+    synchronized int numar() {
+        return numar;
+    }
+
+    /**
+     * Copiaza o pagina de pozitii.
+     *
+     * @param de indicele primei pozitii copiate
+     * @param destinatie vectorul in care se copiaza, cat incape din el
+     * @return cate pozitii au fost copiate
+     */
+    synchronized int copiaza(int de, int[] destinatie) {
+        int cate = Math.min(destinatie.length, numar - de);
+        if (cate <= 0) return 0;
+        System.arraycopy(pozitii, de, destinatie, 0, cate);
+        return cate;
+    }
+}
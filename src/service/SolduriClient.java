@@ -0,0 +1,134 @@
+package service;
+
+import model.Bani;
+import model.ContBancar;
+import model.ContCredit;
+import model.ContEconomii;
+import model.Valuta;
+
+/**
+ * Clasa {@code SolduriClient} tine soldurile unui client adunate pe tip de cont si pe valuta.
+ * <p>
+ * Totalurile sunt actualizate de {@link Banca} la fiecare modificare de sold (depunere,
+ * retragere, transfer, dobanda, schimbare de valuta, deschidere si inchidere de cont), cu
+ * diferenta adusa de operatie. Statisticile unui client se citesc deci dintr-un
+ * {@link Instantaneu} de cateva valori, fara a parcurge conturile.
+ * </p>
+ * <p>
+ * Sumele sunt in subunitati, separat pentru fiecare valuta; conversia intr-o singura valuta
+ * se face doar la citire, cu cursurile de atunci. Metodele sunt sincronizate pe obiectul
+ * clientului, deci fiecare actualizare apare intreaga intr-un instantaneu.
+ * </p>
+ */
+public final class SolduriClient {
+
+    /** Tipurile de cont dupa care se aduna soldurile. */
+    public enum TipCont {
+        CURENT, ECONOMII, CREDIT;
+
+        /** @return tipul unui cont */
+        public static TipCont al(ContBancar cont) {
+            if (cont instanceof ContEconomii) return ECONOMII;
+            if (cont instanceof ContCredit) return CREDIT;
+            return CURENT;
+        }
+    }
+
+    private static final int NUMAR_VALUTE = Valuta.values().length;
+    private static final int NUMAR_TIPURI = TipCont.values().length;
+
+    /** Ordinalul valutei fiecarei pozitii din totalurile unui tip: 0, 1, ... */
+    private static final int[] VALUTE = new int[NUMAR_VALUTE];
+
+    static {
+        for (int v = 0; v < NUMAR_VALUTE; v++) VALUTE[v] = v;
+    }
+
+    /** Soldul total pe {@code tip * NUMAR_VALUTE + valuta}, in subunitati. */
+    private final long[] solduri = new long[NUMAR_TIPURI * NUMAR_VALUTE];
+    private final int[] numarConturi = new int[NUMAR_TIPURI];
+
+    private static int index(TipCont tip, Valuta valuta) {
+        return tip.ordinal() * NUMAR_VALUTE + valuta.ordinal();
+    }
+
+    synchronized void contAdaugat(ContBancar cont) {
+        TipCont tip = TipCont.al(cont);
+        solduri[index(tip, cont.getValuta())] += cont.getSold();
+        numarConturi[tip.ordinal()]++;
+    }
+
+    synchronized void contScos(ContBancar cont) {
+        TipCont tip = TipCont.al(cont);
+        solduri[index(tip, cont.getValuta())] -= cont.getSold();
+        numarConturi[tip.ordinal()]--;
+    }
+
+    /**
+     * Inlocuieste contributia veche a unui cont cu soldul lui curent. Se apeleaza cat timp
+     * contul este blocat, imediat dupa modificare.
+     *
+     * @param cont contul modificat
+     * @param valutaInainte valuta contului inainte de modificare
+     * @param soldInainte soldul contului inainte de modificare
+     */
+    synchronized void soldModificat(ContBancar cont, Valuta valutaInainte, long soldInainte) {
+        TipCont tip = TipCont.al(cont);
+        solduri[index(tip, valutaInainte)] -= soldInainte;
+        solduri[index(tip, cont.getValuta())] += cont.getSold();
+    }
+
+    /** @return o copie a totalurilor curente */
+    public synchronized Instantaneu instantaneu() {
+        return new Instantaneu(solduri.clone(), numarConturi.clone());
+    }
+
+    /**
+     * Totalurile unui client la un moment dat. Nu se mai modifica dupa creare.
+     */
+    public static final class Instantaneu {
+
+        /** Instantaneul unui client fara conturi. */
+        static final Instantaneu GOL = new Instantaneu(new long[NUMAR_TIPURI * NUMAR_VALUTE], new int[NUMAR_TIPURI]);
+
+        private final long[] solduri;
+        private final int[] numarConturi;
+
+        private Instantaneu(long[] solduri, int[] numarConturi) {
+            this.solduri = solduri;
+            this.numarConturi = numarConturi;
+        }
+
+        /** @return soldul total al conturilor de un tip tinute intr-o valuta, in subunitati */
+        public long sold(TipCont tip, Valuta valuta) {
+            return solduri[index(tip, valuta)];
+        }
+
+        /** @return cate conturi de un tip are clientul */
+        public int numarConturi(TipCont tip) {
+            return numarConturi[tip.ordinal()];
+        }
+
+        /**
+         * Returneaza soldul total al conturilor de un tip, convertit intr-o singura valuta.
+         * Soldurile din toate valutele se convertesc intr-un singur lot.
+         *
+         * @param tip tipul de cont
+         * @param tinta valuta in care se exprima totalul
+         * @param curs cursurile folosite pentru conversie
+         * @return totalul, in unitati
+         */
+        public double total(TipCont tip, Valuta tinta, CursuriValutare curs) {
+            double[] sume = new double[NUMAR_VALUTE];
+            int inceput = tip.ordinal() * NUMAR_VALUTE;
+            for (int v = 0; v < NUMAR_VALUTE; v++) {
+                sume[v] = Bani.laDouble(solduri[inceput + v]);
+            }
+            curs.convertesteLot(sume, VALUTE, NUMAR_VALUTE, tinta, sume);
+
+            double total = 0;
+            for (double suma : sume) total += suma;
+            return total;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package service;
+
+/**
+ * Enumerarea {@code TipEveniment} descrie evenimentele de audit ale aplicatiei.
+ * <p>
+ * Fiecare tip are o categorie, un nivel de detaliu si un formator care construieste textul
+ * din argumentele evenimentului. Formatorul ruleaza doar pe firul de scriere al
+ * {@link AuditService}, deci apelantii nu construiesc niciun sir de caractere.
+ * </p>
+ * <p>
+ * Tipul stie si care argumente sunt emailul clientului si id-urile conturilor implicate;
+ * acestea se scriu separat in antetul liniei si sunt folosite de indexul de audit.
+ * </p>
+ */
+public enum TipEveniment {
+
+    MESAJ(Categorie.SISTEM, Nivel.INFO, (sb, e) -> sb.append(e.o1)),
+    INITIALIZARE(Categorie.SISTEM, Nivel.INFO, (sb, e) -> sb
+            .append("Initializare sistem Banca completata. Clienti: ").append(e.n1)
+            .append(", Conturi: ").append(e.n2).append(", Tranzactii: ").append(e.n3)),
+    DOBANDA_AUTOMATA(Categorie.SISTEM, Nivel.INFO, (sb, e) -> sb
+            .append("Dobanda lunara aplicata automat la pornirea aplicatiei.")),
+    DATE_SALVATE(Categorie.SISTEM, Nivel.DETALIU, (sb, e) -> sb
+            .append("Datele au fost salvate pe disc.")),
+    CURSURI_REINCARCATE(Categorie.SISTEM, Nivel.INFO, (sb, e) -> sb
+            .append("Cursurile valutare au fost reincarcate din ").append(e.o1)),
+    CURSURI_INDISPONIBILE(Categorie.SISTEM, Nivel.EROARE, (sb, e) -> sb
+            .append("Cursurile valutare nu au putut fi incarcate din ").append(e.o1)
+            .append("; operatiile intre valute sunt refuzate")),
+    EVENIMENTE_PIERDUTE(Categorie.SISTEM, Nivel.EROARE, (sb, e) -> sb
+            .append("AUDIT: ").append(e.n1).append(" evenimente pierdute (buffer plin)")),
+
+    LOGIN_REUSIT(Categorie.AUTENTIFICARE, Nivel.INFO, 1, 0, (sb, e) -> sb
+            .append("LOGIN reusit pentru: ").append(e.o1)),
+    LOGIN_ESUAT(Categorie.AUTENTIFICARE, Nivel.EROARE, 1, 0, (sb, e) -> sb
+            .append("LOGIN esuat pentru: ").append(e.o1)),
+    LOGIN_GUI_REUSIT(Categorie.AUTENTIFICARE, Nivel.INFO, 1, 0, (sb, e) -> sb
+            .append("Utilizator autentificat GUI: ").append(e.o1)),
+    LOGIN_GUI_ESUAT(Categorie.AUTENTIFICARE, Nivel.EROARE, 1, 0, (sb, e) -> sb
+            .append("Autentificare esuata GUI: ").append(e.o1)),
+    INREGISTRARE_GUI(Categorie.AUTENTIFICARE, Nivel.INFO, 1, 0, (sb, e) -> sb
+            .append("Inregistrare GUI: ").append(e.o1)),
+
+    CLIENT_EXISTENT(Categorie.CLIENT, Nivel.EROARE, 1, 0, (sb, e) -> sb
+            .append("Eroare creare client: email deja existent (").append(e.o1).append(')')),
+    CLIENT_NOU(Categorie.CLIENT, Nivel.INFO, 2, 0, (sb, e) -> sb
+            .append("Client nou creat: ").append(e.o1).append(" (").append(e.o2).append(')')),
+
+    CONT_NOU(Categorie.CONT, Nivel.INFO, 1, 0, (sb, e) -> sb
+            .append("Cont nou creat pentru client ").append(e.o1).append(" | tip=").append(e.o2)
+            .append(" | valuta=").append(e.o3).append(" | sold initial=").append(e.r1)),
+    CONT_SUPLIMENTAR(Categorie.CONT, Nivel.INFO, 1, 0, (sb, e) -> sb
+            .append("Cont suplimentar creat pentru client: ").append(e.o1).append(" | tip=").append(e.o2)
+            .append(" | valuta=").append(e.o3)),
+    CONT_ECONOMII(Categorie.CONT, Nivel.INFO, 1, 0, (sb, e) -> sb
+            .append("Cont economii creat pentru client: ").append(e.o1).append(" | tip=").append(e.o2)
+            .append(" | valuta=").append(e.o3)),
+    CONTURI_CLIENT(Categorie.CONT, Nivel.DETALIU, 1, 0, (sb, e) -> sb
+            .append("Conturi obtinute pentru client: ").append(e.o1).append(" | numar conturi=").append(e.n1)),
+    INCHIDERE_CONT_INEXISTENT(Categorie.CONT, Nivel.EROARE, 0, 1, (sb, e) -> sb
+            .append("Eroare: incercare de inchidere cont inexistent (id=").append(e.n1).append(')')),
+    INCHIDERE_CONT_STRAIN(Categorie.CONT, Nivel.EROARE, 0, 1, (sb, e) -> sb
+            .append("Eroare: incercare de inchidere cont care nu apartine clientului (id=").append(e.n1).append(')')),
+    INCHIDERE_SOLD_NENUL(Categorie.CONT, Nivel.EROARE, 0, 1, (sb, e) -> sb
+            .append("Eroare inchidere cont: sold diferit de zero pentru cont ").append(e.n1)),
+    CONT_INCHIS(Categorie.CONT, Nivel.INFO, 0, 1, (sb, e) -> sb
+            .append("Cont inchis cu succes: ").append(e.n1).append(" (Client: ").append(e.o1).append(')')),
+    CONVERSIE_VALUTA(Categorie.CONT, Nivel.INFO, (sb, e) -> sb
+            .append("Conversie efectuat: ").append(e.o1).append(" -> ").append(e.o2)),
+    CONVERSIE_VALUTA_GUI(Categorie.CONT, Nivel.INFO, 0, 1, (sb, e) -> sb
+            .append(String.format("Conversie valută: Cont %d din %s în %s (%.2f → %.2f)",
+                    e.n1, e.o1, e.o2, e.r1, e.r2))),
+    DOBANDA_APLICATA(Categorie.CONT, Nivel.INFO, (sb, e) -> ((MotorDobanzi.RezultatDobanzi) e.o1)
+            .scrieDobandaPeValuta(sb.append("Dobanda lunara aplicata pentru ").append(e.n1)
+                    .append(" conturi de economii (").append(e.n2).append(" cu dobanda). Total pe valuta: "))),
+
+    RETRAGERE_CONT_INVALID(Categorie.TRANZACTIE, Nivel.EROARE, 1, 0, (sb, e) -> sb
+            .append("Eroare retragere: cont inexistent sau apartine altui client (").append(e.o1).append(')')),
+    RETRAGERE(Categorie.TRANZACTIE, Nivel.INFO, 2, 1, (sb, e) -> sb
+            .append("Retragere efectuata: ").append(e.r1).append(' ').append(e.o1)
+            .append(" | cont=").append(e.n1).append(" | client=").append(e.o2)),
+    DEPUNERE(Categorie.TRANZACTIE, Nivel.INFO, 2, 1, (sb, e) -> sb
+            .append("Depunere efectuata: ").append(e.r1).append(' ').append(e.o1)
+            .append(" | cont=").append(e.n1).append(" | client=").append(e.o2)),
+    TRANZACTIE_ADAUGATA(Categorie.TRANZACTIE, Nivel.INFO, (sb, e) -> sb
+            .append("Tranzactie adaugata:  | suma=").append(e.r1)
+            .append(" | ").append(e.o1).append(" -> ").append(e.o2)),
+    TRANSFER_INTERZIS(Categorie.TRANZACTIE, Nivel.EROARE, 0, 1, (sb, e) -> sb
+            .append("Eroare transfer: incercare de transfer din cont ").append(e.n1)
+            .append(" (").append(((Class<?>) e.o1).getSimpleName()).append(") catre alt client.")),
+    TRANSFER_REUSIT(Categorie.TRANZACTIE, Nivel.INFO, 0, 2, (sb, e) -> sb
+            .append("Transfer reusit: ").append(e.r1).append(' ').append(e.o1)
+            .append(" | din cont ").append(e.n1).append(" catre cont ").append(e.n2));
+
+    /** Domeniul aplicatiei din care provine evenimentul; nivelul se configureaza pe categorie. */
+    public enum Categorie { SISTEM, AUTENTIFICARE, CLIENT, CONT, TRANZACTIE }
+
+    /** Nivelul de detaliu; un nivel configurat accepta evenimentele de acel nivel si mai importante. */
+    public enum Nivel { EROARE, INFO, DETALIU }
+
+    /** Construieste textul unui eveniment din argumentele lui. */
+    @FunctionalInterface
+    interface Formator {
+        void formateaza(StringBuilder sb, EvenimentAudit e);
+    }
+
+    private final Categorie categorie;
+    private final Nivel nivel;
+    /** Argumentul referinta (1 sau 2) care contine emailul clientului; 0 daca nu exista. */
+    private final int argumentEmail;
+    /** Cate dintre primele argumente intregi sunt id-uri de cont (0, 1 sau 2). */
+    private final int argumenteCont;
+    final Formator formator;
+
+    TipEveniment(Categorie categorie, Nivel nivel, Formator formator) {
+        this(categorie, nivel, 0, 0, formator);
+    }
+
+    TipEveniment(Categorie categorie, Nivel nivel, int argumentEmail, int argumenteCont, Formator formator) {
+        this.categorie = categorie;
+        this.nivel = nivel;
+        this.argumentEmail = argumentEmail;
+        this.argumenteCont = argumenteCont;
+        this.formator = formator;
+    }
+
+    /** @return emailul clientului din argumentele evenimentului sau {@code null} */
+    String email(EvenimentAudit e) {
+        Object email = argumentEmail == 1 ? e.o1 : argumentEmail == 2 ? e.o2 : null;
+        return email == null ? null : email.toString();
+    }
+
+    /**
+     * @param i 0 pentru contul principal, 1 pentru contul destinatie
+     * @return id-ul contului din argumentele evenimentului sau -1
+     */
+    int cont(EvenimentAudit e, int i) {
+        if (i >= argumenteCont) return -1;
+        return (int) (i == 0 ? e.n1 : e.n2);
+    }
+
+    public Categorie getCategorie() { return categorie; }
+    public Nivel getNivel() { return nivel; }
+}
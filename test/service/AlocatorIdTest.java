@@ -0,0 +1,88 @@
+package service;
+
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+/**
+ * Verifica alocarea id-urilor in blocuri rezervate pe disc ({@link AlocatorId}): id-urile
+ * sunt unice intre fire, raman unice dupa redeschiderea fisierului (blocul neconsumat este
+ * sarit), iar o rezervare esuata nu intoarce niciun id.
+ */
+public class AlocatorIdTest {
+
+    private static final Path FISIER = Paths.get("data/secvente.txt");
+    private static final int BLOC = 7;
+    private static final int FIRE = 8;
+    private static final int ID_PE_FIR = 5000;
+
+    public static void main(String[] args) throws Exception {
+        Set<Integer> alocate = ConcurrentHashMap.newKeySet();
+
+        AlocatorId alocator = AlocatorId.deschide(FISIER, BLOC, valoriInitiale(100));
+        ExecutorService fire = Executors.newFixedThreadPool(FIRE);
+        for (int f = 0; f < FIRE; f++) {
+            fire.execute(() -> {
+                for (int k = 0; k < ID_PE_FIR; k++) {
+                    int id = alocator.urmator(AlocatorId.Secventa.TRANZACTIE);
+                    Verifica.adevarat(alocate.add(id), "id alocat de doua ori: " + id);
+                }
+            });
+        }
+        fire.shutdown();
+        Verifica.adevarat(fire.awaitTermination(30, TimeUnit.SECONDS), "alocarea nu s-a terminat");
+        Verifica.egal((long) FIRE * ID_PE_FIR, alocate.size(), "id-uri unice alocate concurent");
+        Verifica.egal(100, Collections.min(alocate), "primul id alocat");
+        int maxim = Collections.max(alocate);
+
+        // Redeschiderea simuleaza o repornire: valorile initiale sunt ignorate, iar id-urile
+        // noi incep dupa ultimul bloc rezervat
+        AlocatorId redeschis = AlocatorId.deschide(FISIER, BLOC, valoriInitiale(1));
+        for (int k = 0; k < 100; k++) {
+            int id = redeschis.urmator(AlocatorId.Secventa.TRANZACTIE);
+            Verifica.adevarat(id > maxim, "id refolosit dupa redeschidere: " + id);
+            Verifica.adevarat(alocate.add(id), "id alocat de doua ori dupa redeschidere: " + id);
+        }
+
+        // Fisierul temporar nu poate fi creat: rezervarea urmatorului bloc esueaza
+        Path temporar = Paths.get(FISIER + ".tmp");
+        Files.createDirectory(temporar);
+        boolean esuat = false;
+        for (int k = 0; k <= BLOC && !esuat; k++) {
+            try {
+                int id = redeschis.urmator(AlocatorId.Secventa.TRANZACTIE);
+                Verifica.adevarat(alocate.add(id), "id alocat de doua ori: " + id);
+            } catch (UncheckedIOException e) {
+                esuat = true;
+            }
+        }
+        Verifica.adevarat(esuat, "rezervarea unui bloc trebuia sa esueze");
+
+        Files.delete(temporar);
+        for (int k = 0; k < 3 * BLOC; k++) {
+            int id = redeschis.urmator(AlocatorId.Secventa.TRANZACTIE);
+            Verifica.adevarat(alocate.add(id), "id alocat de doua ori dupa reincercare: " + id);
+        }
+
+        // Dupa inca o repornire, niciun id din blocurile deja rezervate nu este refolosit
+        AlocatorId ultimul = AlocatorId.deschide(FISIER, BLOC, valoriInitiale(1));
+        int id = ultimul.urmator(AlocatorId.Secventa.TRANZACTIE);
+        Verifica.adevarat(alocate.add(id), "id alocat de doua ori dupa a doua redeschidere: " + id);
+    }
+
+    private static Map<AlocatorId.Secventa, IntSupplier> valoriInitiale(int start) {
+        Map<AlocatorId.Secventa, IntSupplier> valori = new EnumMap<>(AlocatorId.Secventa.class);
+        for (AlocatorId.Secventa s : AlocatorId.Secventa.values()) valori.put(s, () -> start);
+        return valori;
+    }
+}
@@ -0,0 +1,103 @@
+package service;
+
+import model.Valuta;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Verifica segmentele comprimate ale jurnalului de audit ({@link ArhivaAudit}): segmentele
+ * inchise sunt comprimate impreuna cu fisierele {@code .idx} si {@code .inv}, iar
+ * interogarile gasesc in continuare evenimentele din segmentele comprimate.
+ */
+public class ArhivaAuditTest {
+
+    private static final Path DIRECTOR = Paths.get("data/audit");
+    private static final int EVENIMENTE = 3000;
+
+    public static void main(String[] args) throws Exception {
+        comprimaSegment();
+
+        // Segmente mici, ca evenimentele sa fie impartite in mai multe segmente; se seteaza
+        // inainte de initializarea AuditService
+        System.setProperty("banca.audit.dimensiuneSegment", "16384");
+
+        for (int k = 0; k < EVENIMENTE; k++) {
+            AuditService.log(TipEveniment.TRANSFER_REUSIT, Valuta.RON, 7, 8, 1.0);
+        }
+        AuditService.log(TipEveniment.TRANSFER_REUSIT, Valuta.EUR, 9, 7, 2.0);
+
+        // Toate segmentele inchise ajung comprimate; doar segmentul curent ramane text
+        Verifica.inCel(10_000, () -> fisiere(".log").size() == 1 && fisiere(".log.gz").size() >= 2,
+                "segmentele inchise nu au fost comprimate");
+        for (Path gz : fisiere(".log.gz")) {
+            String baza = gz.getFileName().toString().replace(".log.gz", "");
+            Verifica.adevarat(Files.exists(DIRECTOR.resolve(baza + ".idx")), "lipseste indexul pentru " + gz);
+            Verifica.adevarat(Files.exists(DIRECTOR.resolve(baza + ".inv")), "lipsesc antetele pentru " + gz);
+        }
+
+        Verifica.inCel(2_000, () -> numara(AuditService.interogare().cont(7)) == EVENIMENTE + 1,
+                "interogarea dupa cont trebuia sa gaseasca toate evenimentele, inclusiv din segmentele comprimate");
+        Verifica.egal(1, numara(AuditService.interogare().cont(9)), "evenimente pentru contul 9");
+
+        // Cautarea pe interval citeste aceleasi evenimente din blocurile comprimate
+        List<String> linii = new ArrayList<>();
+        AuditService.citeste(LocalDateTime.now().minusHours(1), LocalDateTime.now().plusHours(1), linii::add);
+        long transferuri = linii.stream().filter(l -> l.contains(" - TRANSFER_REUSIT ")).count();
+        Verifica.egal(EVENIMENTE + 1, transferuri, "transferuri citite pe interval");
+
+        AuditService.inchide();
+    }
+
+    /** Comprima direct un segment si verifica ca textul decomprimat este identic cu originalul. */
+    private static void comprimaSegment() throws IOException {
+        Path director = Files.createDirectories(Paths.get("data/segment"));
+        Path segment = director.resolve("audit-2025-01-01-001.log");
+        StringBuilder sb = new StringBuilder();
+        LocalDateTime timp = LocalDateTime.of(2025, 1, 1, 10, 0);
+        for (int k = 0; k < 20_000; k++) {
+            sb.append(timp.plusNanos(k * 1_000_000L).format(ArhivaAudit.FORMAT_TIMP))
+                    .append(" - TRANSFER_REUSIT cont=").append(k % 50).append(" destinatie=").append(k % 7)
+                    .append(" - Transfer reusit: 1.0 RON | din cont ").append(k % 50)
+                    .append(" catre cont ").append(k % 7).append('\n');
+        }
+        byte[] original = sb.toString().getBytes();
+        Files.write(segment, original);
+
+        ArhivaAudit.comprima(segment);
+
+        Verifica.adevarat(!Files.exists(segment), "textul original trebuia sters dupa comprimare");
+        Verifica.adevarat(Files.size(director.resolve("audit-2025-01-01-001.idx")) > 0, "index gol");
+        Verifica.adevarat(Files.size(director.resolve("audit-2025-01-01-001.inv")) > 0, "antete goale");
+        byte[] decomprimat;
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(director.resolve("audit-2025-01-01-001.log.gz")))) {
+            decomprimat = in.readAllBytes();
+        }
+        Verifica.adevarat(Arrays.equals(original, decomprimat), "textul decomprimat difera de original");
+    }
+
+    private static List<Path> fisiere(String sufix) {
+        List<Path> rezultat = new ArrayList<>();
+        try (Stream<Path> s = Files.list(DIRECTOR)) {
+            s.filter(p -> p.getFileName().toString().endsWith(sufix)).forEach(rezultat::add);
+        } catch (IOException e) {
+            // Directorul este creat de firul de scriere la primul segment
+        }
+        return rezultat;
+    }
+
+    private static long numara(InterogareAudit interogare) {
+        try (Stream<InregistrareAudit> s = interogare.executa()) {
+            return s.count();
+        }
+    }
+}
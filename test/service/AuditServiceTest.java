@@ -0,0 +1,76 @@
+package service;
+
+import model.Valuta;
+
+import java.util.stream.Stream;
+
+/**
+ * Verifica jurnalul de audit asincron ({@link AuditService}): cand bufferul se umple,
+ * evenimentele pierdute sunt numarate si raportate, fiecare eveniment fiind fie scris, fie
+ * numarat; firul de scriere asteapta fara sa consume procesor cand nu are evenimente si este
+ * trezit de primul eveniment nou.
+ */
+public class AuditServiceTest {
+
+    private static final int PRODUCATORI = 4;
+    private static final int EVENIMENTE_PE_PRODUCATOR = 20_000;
+    private static final int CONT = 7;
+
+    public static void main(String[] args) throws Exception {
+        // Un buffer mic, ca producatorii sa il umple; se seteaza inainte de initializarea AuditService
+        System.setProperty("banca.audit.capacitate", "64");
+
+        Thread[] producatori = new Thread[PRODUCATORI];
+        for (int p = 0; p < PRODUCATORI; p++) {
+            producatori[p] = new Thread(() -> {
+                for (int k = 0; k < EVENIMENTE_PE_PRODUCATOR; k++) {
+                    AuditService.log(TipEveniment.TRANSFER_REUSIT, Valuta.RON, CONT, CONT + 1, 1.0);
+                }
+            });
+            producatori[p].start();
+        }
+        for (Thread t : producatori) t.join();
+
+        long total = (long) PRODUCATORI * EVENIMENTE_PE_PRODUCATOR;
+        Verifica.inCel(10_000, () -> scrise() + pierdute() == total,
+                "evenimentele scrise plus cele raportate ca pierdute trebuiau sa fie " + total);
+        System.out.println("   scrise=" + scrise() + " pierdute=" + pierdute());
+
+        // Fara evenimente, firul de scriere este parcat fara timeout
+        Thread scriitor = firScriitor();
+        Verifica.inCel(2_000, () -> scriitor.getState() == Thread.State.WAITING,
+                "firul de scriere trebuia sa astepte cand nu are evenimente");
+
+        // Un eveniment nou il trezeste si devine vizibil in interogari
+        AuditService.log(TipEveniment.LOGIN_ESUAT, "trezire@test.ro");
+        Verifica.inCel(2_000, () -> numara(AuditService.interogare().email("trezire@test.ro")) == 1,
+                "evenimentul publicat dupa inactivitate nu a fost scris");
+
+        AuditService.inchide();
+        Verifica.adevarat(!scriitor.isAlive(), "firul de scriere trebuia oprit");
+    }
+
+    private static long scrise() {
+        return numara(AuditService.interogare().cont(CONT).tip(TipEveniment.TRANSFER_REUSIT));
+    }
+
+    /** Suma evenimentelor raportate in liniile EVENIMENTE_PIERDUTE ("AUDIT: N evenimente pierdute ..."). */
+    private static long pierdute() {
+        try (Stream<InregistrareAudit> s = AuditService.interogare().tip(TipEveniment.EVENIMENTE_PIERDUTE).executa()) {
+            return s.mapToLong(r -> Long.parseLong(r.getText().split(" ")[1])).sum();
+        }
+    }
+
+    private static long numara(InterogareAudit interogare) {
+        try (Stream<InregistrareAudit> s = interogare.executa()) {
+            return s.count();
+        }
+    }
+
+    private static Thread firScriitor() {
+        for (Thread t : Thread.getAllStackTraces().keySet()) {
+            if (t.getName().equals("audit-scriitor")) return t;
+        }
+        throw new AssertionError("firul audit-scriitor nu a fost gasit");
+    }
+}
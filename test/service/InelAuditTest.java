@@ -0,0 +1,97 @@
+package service;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Verifica bufferul circular {@link InelAudit}: cu mai multi producatori si un singur
+ * consumator, fiecare slot publicat este consumat exact o data si in ordinea fiecarui
+ * producator, iar un buffer plin refuza revendicarea pana cand consumatorul elibereaza loc.
+ */
+public class InelAuditTest {
+
+    private static final int PRODUCATORI = 4;
+    private static final int EVENIMENTE_PE_PRODUCATOR = 200_000;
+
+    public static void main(String[] args) throws Exception {
+        bufferPlin();
+        producatoriConcurenti();
+    }
+
+    private static void bufferPlin() {
+        InelAudit<long[]> inel = new InelAudit<>(4, () -> new long[1]);
+        for (int i = 0; i < 4; i++) {
+            long pozitie = inel.revendica();
+            Verifica.egal(i, pozitie, "pozitia revendicata");
+            inel.slot(pozitie)[0] = i;
+            inel.publica(pozitie);
+        }
+        Verifica.egal(-1, inel.revendica(), "revendicare intr-un buffer plin");
+
+        long[] citit = new long[1];
+        Verifica.egal(1, inel.consuma(s -> citit[0] = s[0], 1), "sloturi consumate");
+        Verifica.egal(0, citit[0], "primul slot consumat");
+        Verifica.egal(4, inel.revendica(), "revendicare dupa eliberarea unui slot");
+        Verifica.adevarat(!inel.esteGol(), "bufferul are sloturi neconsumate");
+    }
+
+    private static void producatoriConcurenti() throws InterruptedException {
+        InelAudit<long[]> inel = new InelAudit<>(64, () -> new long[2]);
+        AtomicLong refuzate = new AtomicLong();
+        AtomicBoolean productieTerminata = new AtomicBoolean();
+
+        // Consumatorul porneste primul, ca bufferul sa fie golit in timp ce producatorii scriu
+        long[] ultimul = new long[PRODUCATORI];
+        Arrays.fill(ultimul, -1);
+        long[] consumate = new long[1];
+        AtomicBoolean ordineGresita = new AtomicBoolean();
+        Thread consumator = new Thread(() -> {
+            while (true) {
+                boolean ultimaTrecere = productieTerminata.get();
+                int n = inel.consuma(s -> {
+                    int p = (int) s[0];
+                    if (s[1] <= ultimul[p]) ordineGresita.set(true);
+                    ultimul[p] = s[1];
+                    consumate[0]++;
+                }, 128);
+                if (n == 0) {
+                    if (ultimaTrecere && inel.esteGol()) break;
+                    Thread.yield();
+                }
+            }
+        });
+        consumator.start();
+
+        Thread[] producatori = new Thread[PRODUCATORI];
+        for (int p = 0; p < PRODUCATORI; p++) {
+            int producator = p;
+            producatori[p] = new Thread(() -> {
+                for (int k = 0; k < EVENIMENTE_PE_PRODUCATOR; k++) {
+                    long pozitie;
+                    while ((pozitie = inel.revendica()) < 0) {
+                        // Bufferul este plin; producatorul reincearca, ca fiecare eveniment sa ajunga la consumator
+                        refuzate.incrementAndGet();
+                        Thread.yield();
+                    }
+                    long[] slot = inel.slot(pozitie);
+                    slot[0] = producator;
+                    slot[1] = k;
+                    inel.publica(pozitie);
+                }
+            });
+            producatori[p].start();
+        }
+
+        for (Thread t : producatori) t.join();
+        productieTerminata.set(true);
+        consumator.join(30_000);
+        Verifica.adevarat(!consumator.isAlive(), "consumatorul nu a golit bufferul");
+        Verifica.adevarat(!ordineGresita.get(), "evenimentele unui producator au fost consumate in alta ordine");
+        Verifica.egal((long) PRODUCATORI * EVENIMENTE_PE_PRODUCATOR, consumate[0], "evenimente consumate");
+        for (int p = 0; p < PRODUCATORI; p++) {
+            Verifica.egal(EVENIMENTE_PE_PRODUCATOR - 1, ultimul[p], "ultimul eveniment al producatorului " + p);
+        }
+        System.out.println("   consumate=" + consumate[0] + " revendicari refuzate=" + refuzate.get());
+    }
+}
@@ -0,0 +1,106 @@
+package service;
+
+import model.Tranzactie;
+import model.Valuta;
+
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Verifica jurnalul de tranzactii ({@link JurnalTranzactii}): indexul dupa timp ramane sortat
+ * cand tranzactiile sosesc in alta ordine, {@code adaugaAcum} produce momente crescatoare in
+ * ordinea jurnalului chiar cu mai multe fire, iar momentele se pastreaza la salvare si
+ * incarcare, inclusiv pentru liniile vechi cu data locala.
+ */
+public class JurnalTranzactiiTest {
+
+    private static final int FIRE = 8;
+    private static final int TRANZACTII_PE_FIR = 20_000;
+
+    public static void main(String[] args) throws Exception {
+        Verifica.directorDeLucruGol();
+        adaugareInAltaOrdine();
+        adaugareConcurenta();
+        salvareSiIncarcare();
+    }
+
+    private static void adaugareInAltaOrdine() {
+        JurnalTranzactii jurnal = new JurnalTranzactii(4);
+        Random r = new Random(42);
+        long baza = 1_700_000_000_000L;
+        long[] momente = new long[5000];
+        for (int i = 0; i < momente.length; i++) {
+            momente[i] = baza + r.nextInt(1_000_000);
+            int pozitie = jurnal.adauga(new Tranzactie(i + 1, 1, 2, 100, Valuta.RON, momente[i]));
+            Verifica.egal(i, pozitie, "pozitia tranzactiei adaugate");
+        }
+
+        int[] toate = jurnal.pozitiiIntre(Long.MIN_VALUE, Long.MAX_VALUE);
+        Verifica.egal(momente.length, toate.length, "pozitii in intervalul complet");
+        for (int i = 1; i < toate.length; i++) {
+            Verifica.adevarat(jurnal.moment(toate[i - 1]) <= jurnal.moment(toate[i]),
+                    "pozitiile nu sunt in ordinea momentului");
+        }
+
+        long de = baza + 250_000;
+        long pana = baza + 500_000;
+        long asteptat = Arrays.stream(momente).filter(m -> m >= de && m < pana).count();
+        Verifica.egal(asteptat, jurnal.numarIntre(de, pana), "numarul tranzactiilor din interval");
+        for (int p : jurnal.pozitiiIntre(de, pana)) {
+            long m = jurnal.moment(p);
+            Verifica.adevarat(m >= de && m < pana, "pozitie in afara intervalului: " + p);
+        }
+        Verifica.egal(momente.length, jurnal.idMaxim(), "id maxim");
+    }
+
+    private static void adaugareConcurenta() throws InterruptedException {
+        JurnalTranzactii jurnal = new JurnalTranzactii();
+        AtomicInteger id = new AtomicInteger();
+        Thread[] fire = new Thread[FIRE];
+        for (int f = 0; f < FIRE; f++) {
+            fire[f] = new Thread(() -> {
+                for (int k = 0; k < TRANZACTII_PE_FIR; k++) {
+                    jurnal.adaugaAcum(id.incrementAndGet(), 1, 2, 100, Valuta.RON);
+                }
+            });
+            fire[f].start();
+        }
+        for (Thread t : fire) t.join();
+
+        int n = jurnal.numar();
+        Verifica.egal((long) FIRE * TRANZACTII_PE_FIR, n, "tranzactii adaugate concurent");
+        for (int i = 1; i < n; i++) {
+            Verifica.adevarat(jurnal.moment(i - 1) <= jurnal.moment(i),
+                    "momentele adaugaAcum trebuiau sa creasca in ordinea jurnalului (pozitia " + i + ")");
+        }
+        Verifica.egal(n, jurnal.numarIntre(Long.MIN_VALUE, Long.MAX_VALUE), "tranzactii in indexul dupa timp");
+    }
+
+    private static void salvareSiIncarcare() throws Exception {
+        LocalDateTime local = LocalDateTime.of(2024, 3, 15, 14, 30, 5);
+        Instant utc = Instant.parse("2025-10-26T01:30:00.250Z");
+        // O linie veche, cu data locala, urmata de una noua, cu moment UTC
+        Files.write(Paths.get("data/tranzactii.txt"), List.of(
+                "1;10;11;12.50;" + local + ";RON",
+                "2;11;10;3.00;" + utc + ";EUR"));
+        FileManager.adaugaTranzactiiInJurnal(List.of(
+                new Tranzactie(3, 10, 11, 7_25, Valuta.USD, utc.toEpochMilli() + 1)));
+
+        JurnalTranzactii jurnal = FileManager.incarcaTranzactii(new HashMap<>());
+        Verifica.egal(3, jurnal.numar(), "tranzactii incarcate");
+        Verifica.egal(Tranzactie.momentDin(local), jurnal.moment(0), "momentul liniei cu data locala");
+        Verifica.egal(utc.toEpochMilli(), jurnal.moment(1), "momentul liniei UTC");
+        Verifica.egal(utc.toEpochMilli() + 1, jurnal.moment(2), "momentul tranzactiei salvate");
+        Verifica.egal(1250, jurnal.suma(0), "suma primei tranzactii");
+        Verifica.egal(7_25, jurnal.suma(2), "suma tranzactiei salvate");
+        Verifica.adevarat(jurnal.valuta(2) == Valuta.USD, "valuta tranzactiei salvate");
+        Verifica.egal(3, jurnal.idMaxim(), "id maxim dupa incarcare");
+    }
+}
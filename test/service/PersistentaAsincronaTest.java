@@ -0,0 +1,81 @@
+package service;
+
+import model.Client;
+import model.ContBancar;
+import model.Valuta;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Verifica persistenta in lot din {@link PersistentaAsincrona}: dupa {@code join()} pe
+ * rezultatul {@link Banca#salveazaDate()} toate modificarile sunt pe disc, o scriere esuata
+ * este raportata si reincercata la salvarea urmatoare, fara a pierde sau dubla tranzactii.
+ */
+public class PersistentaAsincronaTest {
+
+    private static final Path TRANZACTII = Paths.get("data/tranzactii.txt");
+    private static final int TRANSFERURI = 300;
+
+    public static void main(String[] args) throws Exception {
+        Verifica.directorDeLucruGol();
+
+        Banca banca = new Banca();
+        Client client = banca.creeazaClientSiCont("Test", "persistenta@test.ro", "parola1",
+                "CURENT", Valuta.RON, 1_000_00);
+        banca.creaContPentruClient(client, "CURENT", 1_000_00, Valuta.RON);
+        List<ContBancar> conturi = banca.conturiClient(client.getId());
+        int a = conturi.get(0).getId();
+        int b = conturi.get(1).getId();
+
+        // Multe transferuri la rand: sunt scrise in loturi, dar toate ajung pe disc
+        for (int i = 0; i < TRANSFERURI; i++) {
+            if (i % 2 == 0) banca.transfera(client, a, b, 1_00);
+            else banca.transfera(client, b, a, 50);
+        }
+        banca.salveazaDate().join();
+        Verifica.egal(TRANSFERURI, Files.readAllLines(TRANZACTII).size(), "linii in tranzactii.txt dupa salvare");
+
+        // O scriere esuata: tranzactii.txt nu poate fi deschis pentru ca este un director
+        Path salvat = Paths.get("data/tranzactii.txt.salvat");
+        Files.move(TRANZACTII, salvat);
+        Files.createDirectory(TRANZACTII);
+        banca.transfera(client, a, b, 1_00);
+        boolean esuat = false;
+        try {
+            banca.salveazaDate().join();
+        } catch (CompletionException e) {
+            esuat = true;
+        }
+        Verifica.adevarat(esuat, "salvarea trebuia sa esueze cand tranzactii.txt nu poate fi scris");
+
+        // Dupa remedierea problemei, tranzactia ramasa in lot este scrisa o singura data
+        Files.delete(TRANZACTII);
+        Files.move(salvat, TRANZACTII);
+        banca.salveazaDate().join();
+        List<String> linii = Files.readAllLines(TRANZACTII);
+        Verifica.egal(TRANSFERURI + 1, linii.size(), "linii in tranzactii.txt dupa reincercare");
+        int ultimulId = banca.getTranzactii().id(banca.getTranzactii().numar() - 1);
+        Verifica.adevarat(linii.get(linii.size() - 1).startsWith(ultimulId + ";"),
+                "ultima linie trebuia sa fie tranzactia " + ultimulId);
+
+        long soldA = banca.getConturi().get(a).getSold();
+        long soldB = banca.getConturi().get(b).getSold();
+        banca.inchide();
+
+        CompletableFuture<Void> dupaOprire = banca.salveazaDate();
+        Verifica.adevarat(dupaOprire.isCompletedExceptionally(),
+                "salvarea dupa oprire trebuia sa fie refuzata imediat");
+
+        // La repornire se citeste exact ce s-a salvat
+        Banca repornita = new Banca();
+        Verifica.egal(soldA, repornita.getConturi().get(a).getSold(), "soldul contului A dupa repornire");
+        Verifica.egal(soldB, repornita.getConturi().get(b).getSold(), "soldul contului B dupa repornire");
+        Verifica.egal(TRANSFERURI + 1, repornita.getTranzactii().numar(), "tranzactii dupa repornire");
+        repornita.inchide();
+    }
+}
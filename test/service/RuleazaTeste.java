@@ -0,0 +1,73 @@
+package service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Ruleaza toate testele, fiecare intr-o masina virtuala separata.
+ * <p>
+ * Serviciile folosesc fisiere din {@code data/}, relativ la directorul de lucru, si stare
+ * statica (audit, cursuri). De aceea fiecare test porneste intr-un director temporar nou, cu
+ * un director {@code data/} care contine doar {@code curs.txt}, copiat din proiect.
+ * </p>
+ * <p>
+ * Utilizare, din radacina proiectului: {@code java -cp <clase> service.RuleazaTeste}.
+ * Codul de iesire este 0 doar daca toate testele trec.
+ * </p>
+ */
+public class RuleazaTeste {
+
+    private static final Class<?>[] TESTE = {
+            PersistentaAsincronaTest.class,
+            TransferuriConcurenteTest.class,
+            AlocatorIdTest.class,
+            InelAuditTest.class,
+            AuditServiceTest.class,
+            ArhivaAuditTest.class,
+            JurnalTranzactiiTest.class,
+    };
+
+    private static final long TIMEOUT_MINUTE = 2;
+
+    public static void main(String[] args) throws Exception {
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        String clase = System.getProperty("java.class.path");
+        Path curs = Paths.get("data/curs.txt").toAbsolutePath();
+
+        int esuate = 0;
+        for (Class<?> test : TESTE) {
+            Path director = Files.createTempDirectory("test-banca");
+            try {
+                Files.createDirectories(director.resolve("data"));
+                if (Files.exists(curs)) Files.copy(curs, director.resolve("data/curs.txt"));
+
+                System.out.println("== " + test.getSimpleName());
+                Process p = new ProcessBuilder(java, "-cp", clase, test.getName())
+                        .directory(director.toFile())
+                        .inheritIO()
+                        .start();
+                boolean terminat = p.waitFor(TIMEOUT_MINUTE, TimeUnit.MINUTES);
+                if (!terminat) p.destroyForcibly().waitFor();
+                boolean trecut = terminat && p.exitValue() == 0;
+                System.out.println(trecut ? "   TRECUT" : terminat ? "   ESUAT" : "   ESUAT (timp depasit)");
+                if (!trecut) esuate++;
+            } finally {
+                sterge(director);
+            }
+        }
+
+        System.out.println(esuate == 0 ? "Toate testele au trecut." : esuate + " teste esuate.");
+        if (esuate > 0) System.exit(1);
+    }
+
+    private static void sterge(Path director) throws IOException {
+        try (Stream<Path> fisiere = Files.walk(director)) {
+            fisiere.sorted(Comparator.reverseOrder()).forEach(f -> f.toFile().delete());
+        }
+    }
+}
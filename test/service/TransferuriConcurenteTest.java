@@ -0,0 +1,88 @@
+package service;
+
+import model.Client;
+import model.ContBancar;
+import model.Valuta;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Verifica transferurile concurente blocate pe conturi ({@link BlocariConturi}): transferuri
+ * aleatoare intre aceleasi conturi, in ambele sensuri, nu se blocheaza reciproc, nu creeaza
+ * si nu pierd bani, iar fiecare transfer reusit are exact o tranzactie in jurnal.
+ */
+public class TransferuriConcurenteTest {
+
+    private static final int FIRE = 8;
+    private static final int TRANSFERURI_PE_FIR = 3000;
+    private static final long SOLD_INITIAL = 500_00;
+
+    public static void main(String[] args) throws Exception {
+        Verifica.directorDeLucruGol();
+
+        Banca banca = new Banca();
+        List<Client> clienti = new ArrayList<>();
+        List<ContBancar> conturi = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            Client c = banca.creeazaClientSiCont("Test " + i, "concurent" + i + "@test.ro", "parola1",
+                    "CURENT", Valuta.RON, SOLD_INITIAL);
+            for (int j = 0; j < 4; j++) banca.creaContPentruClient(c, "CURENT", SOLD_INITIAL, Valuta.RON);
+            clienti.add(c);
+            conturi.addAll(banca.conturiClient(c.getId()));
+        }
+        long totalInitial = total(conturi);
+        int tranzactiiInitiale = banca.getTranzactii().numar();
+
+        AtomicInteger reusite = new AtomicInteger();
+        ExecutorService fire = Executors.newFixedThreadPool(FIRE);
+        for (int f = 0; f < FIRE; f++) {
+            fire.execute(() -> {
+                ThreadLocalRandom r = ThreadLocalRandom.current();
+                for (int k = 0; k < TRANSFERURI_PE_FIR; k++) {
+                    ContBancar sursa = conturi.get(r.nextInt(conturi.size()));
+                    ContBancar destinatie = conturi.get(r.nextInt(conturi.size()));
+                    if (sursa == destinatie) continue;
+                    try {
+                        banca.transfera(sursa.getClient(), sursa.getId(), destinatie.getId(),
+                                1 + r.nextInt(20_00));
+                        reusite.incrementAndGet();
+                    } catch (Exception e) {
+                        // Sold insuficient: transferul este refuzat fara efecte
+                    }
+                }
+            });
+        }
+        fire.shutdown();
+        Verifica.adevarat(fire.awaitTermination(60, TimeUnit.SECONDS),
+                "transferurile nu s-au terminat in 60 de secunde (blocaj intre fire?)");
+
+        Verifica.egal(totalInitial, total(conturi), "suma soldurilor dupa transferuri");
+        for (ContBancar c : conturi) {
+            Verifica.adevarat(c.getSold() >= 0, "sold negativ in contul " + c.getId());
+        }
+        Verifica.adevarat(reusite.get() > 0, "niciun transfer nu a reusit");
+        Verifica.egal(reusite.get(), banca.getTranzactii().numar() - tranzactiiInitiale,
+                "tranzactii in jurnal fata de transferuri reusite");
+
+        banca.salveazaDate().join();
+        banca.inchide();
+
+        Banca repornita = new Banca();
+        List<ContBancar> reincarcate = new ArrayList<>();
+        for (Client c : clienti) reincarcate.addAll(repornita.conturiClient(c.getId()));
+        Verifica.egal(totalInitial, total(reincarcate), "suma soldurilor dupa repornire");
+        repornita.inchide();
+    }
+
+    private static long total(List<ContBancar> conturi) {
+        long s = 0;
+        for (ContBancar c : conturi) s += c.getSold();
+        return s;
+    }
+}
@@ -0,0 +1,49 @@
+package service;
+
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Verificari folosite de teste. O verificare esuata arunca {@link AssertionError}, deci
+ * testul se opreste cu un cod de iesire diferit de 0.
+ */
+final class Verifica {
+
+    private Verifica() { }
+
+    static void adevarat(boolean conditie, String mesaj) {
+        if (!conditie) throw new AssertionError(mesaj);
+    }
+
+    static void egal(long asteptat, long actual, String mesaj) {
+        if (asteptat != actual) {
+            throw new AssertionError(mesaj + ": asteptat " + asteptat + ", obtinut " + actual);
+        }
+    }
+
+    /**
+     * Asteapta pana cand o conditie devine adevarata, pentru efectele firelor de fundal.
+     *
+     * @param conditie conditia verificata periodic
+     * @param timeoutMs cat se asteapta cel mult
+     * @param mesaj mesajul erorii daca conditia nu devine adevarata
+     */
+    static void inCel(long timeoutMs, BooleanSupplier conditie, String mesaj) throws InterruptedException {
+        long termen = System.nanoTime() + timeoutMs * 1_000_000;
+        while (!conditie.getAsBoolean()) {
+            if (System.nanoTime() > termen) throw new AssertionError(mesaj);
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * Testele care pornesc {@link Banca} scriu in {@code data/} din directorul de lucru.
+     * Se opresc daca acesta contine deja date, ca sa nu modifice datele aplicatiei.
+     */
+    static void directorDeLucruGol() {
+        if (Files.exists(Paths.get("data/clienti.txt")) || Files.exists(Paths.get("data/conturi.dat"))) {
+            throw new AssertionError("Testul trebuie rulat intr-un director de lucru gol (vezi RuleazaTeste).");
+        }
+    }
+}